@@ -0,0 +1,23 @@
+package jin.usersmanagementsystem.benchmark;
+
+import jin.usersmanagementsystem.entity.OurUsers;
+
+/**
+ * 벤치마크에서 사용하는 테스트 사용자 생성
+ */
+final class BenchmarkUsers {
+
+    private BenchmarkUsers() {
+    }
+
+    static OurUsers user(int id) {
+        OurUsers user = new OurUsers();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setName("User " + id);
+        user.setCity("Seoul");
+        user.setRole(id % 10 == 0 ? "ADMIN" : "USER");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5ZkB2G3D8KRf5Q5Q5Q5Q5Q5"); // 형식만 맞춘 해시 (비교에는 사용하지 않음)
+        return user;
+    }
+}
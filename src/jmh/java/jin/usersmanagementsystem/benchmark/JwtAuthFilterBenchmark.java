@@ -0,0 +1,83 @@
+package jin.usersmanagementsystem.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jin.usersmanagementsystem.config.JWTAuthFilter;
+import jin.usersmanagementsystem.config.RequestPhaseMetrics;
+import jin.usersmanagementsystem.entity.OurUsers;
+import jin.usersmanagementsystem.service.JWTUtils;
+import jin.usersmanagementsystem.service.OurUserDetailsService;
+import jin.usersmanagementsystem.service.TokenDenylist;
+import jin.usersmanagementsystem.service.TokenVersionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWTAuthFilter 한 번의 요청 처리 (토큰 검증 -> 사용자 로드 -> SecurityContext 설정)
+ * 사용자 로드는 DB 대신 고정된 사용자를 반환하여 필터 자체의 비용만 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean stateless;   // true 이면 클레임만으로 인증 (사용자 로드 없음)
+
+    private JWTAuthFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setup() {
+        OurUsers user = BenchmarkUsers.user(1);
+        JWTUtils jwtUtils = JwtBenchmark.newJwtUtils();
+        TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry();
+
+        filter = new JWTAuthFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "ourUserDetailsService", new OurUserDetailsService() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return user;
+            }
+        });
+        ReflectionTestUtils.setField(filter, "tokenVersionRegistry", tokenVersionRegistry);
+        ReflectionTestUtils.setField(filter, "statelessEnabled", stateless);
+        TokenDenylist tokenDenylist = new TokenDenylist();
+        ReflectionTestUtils.setField(tokenDenylist, "bucketMinutes", 60L);
+        ReflectionTestUtils.setField(tokenDenylist, "expectedPerBucket", 10_000L);
+        ReflectionTestUtils.setField(tokenDenylist, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(filter, "tokenDenylist", tokenDenylist);
+        RequestPhaseMetrics requestPhaseMetrics = new RequestPhaseMetrics();
+        ReflectionTestUtils.setField(requestPhaseMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "requestPhaseMetrics", requestPhaseMetrics);
+
+        authorizationHeader = "Bearer " + jwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/get-profile");
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
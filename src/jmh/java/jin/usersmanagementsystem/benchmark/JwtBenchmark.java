@@ -0,0 +1,76 @@
+package jin.usersmanagementsystem.benchmark;
+
+import jin.usersmanagementsystem.entity.OurUsers;
+import jin.usersmanagementsystem.service.JWTUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWTUtils 토큰 생성 / 검증 성능
+ * - 같은 토큰을 반복해서 검증하는 경우 (검증된 토큰 캐시 적중)
+ * - 매번 다른 토큰을 검증하는 경우 (캐시 크기보다 많은 토큰을 순환 -> HMAC 검증 + JSON 파싱)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtBenchmark {
+
+    private static final int DISTINCT_TOKENS = 50_000; // 검증된 토큰 캐시(10,000)보다 크게
+
+    private JWTUtils jwtUtils;
+    private OurUsers user;
+    private String token;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        jwtUtils = newJwtUtils();
+        user = BenchmarkUsers.user(1);
+        token = jwtUtils.generateToken(user);
+
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            distinctTokens[i] = jwtUtils.generateToken(BenchmarkUsers.user(i + 1));
+        }
+    }
+
+    static JWTUtils newJwtUtils() {
+        return new JWTUtils();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtUtils.generateRefreshToken(new HashMap<>(), user);
+    }
+
+    @Benchmark
+    public String extractUsernameCached() {
+        return jwtUtils.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extractUsernameUncached() {
+        String distinctToken = distinctTokens[next];
+        next = (next + 1) % DISTINCT_TOKENS;
+        return jwtUtils.extractUsername(distinctToken);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtils.isTokenValid(token, user);
+    }
+}
@@ -0,0 +1,72 @@
+package jin.usersmanagementsystem.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.dto.UserView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 사용자 목록 응답 인코딩 비교 (JSON / CBOR, 압축 여부)
+ * 응답 크기는 측정 시작 전에 한 번 출력한다. (예: [json] 10000 users: 812345 bytes, gzip 98765 bytes)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PayloadEncodingBenchmark {
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"10000"})
+    private int users;
+
+    private ObjectMapper objectMapper;
+    private ReqRes reqRes;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()   // ContentEncodingConfig 와 같은 설정
+                : Jackson2ObjectMapperBuilder.json().build();
+        reqRes = new ReqRes();
+        reqRes.setStatusCode(200);
+        reqRes.setMessage("Successful");
+        List<UserView> list = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            list.add(UserView.from(BenchmarkUsers.user(i)));
+        }
+        reqRes.setOurUsersList(list);
+
+        System.out.printf("%n[%s] %d users: %d bytes, gzip %d bytes%n", format, users, serialize().length, serializeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(reqRes);
+    }
+
+    // 응답 압축을 켰을 때 서버가 추가로 쓰는 CPU (직렬화 + gzip)
+    @Benchmark
+    public byte[] serializeGzip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, reqRes);
+        }
+        return bytes.toByteArray();
+    }
+}
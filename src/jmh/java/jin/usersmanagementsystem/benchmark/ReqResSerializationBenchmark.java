@@ -0,0 +1,55 @@
+package jin.usersmanagementsystem.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.dto.UserView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReqRes JSON 직렬화 (사용자 한 명 / 사용자 목록)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReqResSerializationBenchmark {
+
+    @Param({"1", "1000", "10000"})
+    private int users;   // 1 이면 ourUsers, 그 외에는 ourUsersList 에 담아서 직렬화
+
+    private ObjectMapper objectMapper;
+    private ReqRes reqRes;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();   // 애플리케이션과 같은 기본 설정
+        reqRes = new ReqRes();
+        reqRes.setStatusCode(200);
+        reqRes.setMessage("Successful");
+        if (users == 1) {
+            reqRes.setOurUsers(UserView.from(BenchmarkUsers.user(1)));
+        } else {
+            List<UserView> list = new ArrayList<>(users);
+            for (int i = 1; i <= users; i++) {
+                list.add(UserView.from(BenchmarkUsers.user(i)));
+            }
+            reqRes.setOurUsersList(list);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(reqRes);
+    }
+}
@@ -0,0 +1,116 @@
+package jin.usersmanagementsystem.benchmark;
+
+import jin.usersmanagementsystem.dto.UserSearchCriteria;
+import jin.usersmanagementsystem.dto.UserView;
+import jin.usersmanagementsystem.entity.OurUsers;
+import jin.usersmanagementsystem.repository.UsersSearchRepositoryImpl;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 검색 (UsersSearchRepositoryImpl) - 100만 명
+ * 기본은 H2 (MySQL 모드) 메모리 DB, 실제 MySQL 로 측정하려면
+ * ./gradlew jmh -Pjmh.includes=UserSearchBenchmark -Pbenchmark.jdbc.url=jdbc:mysql://localhost:3306/bench -Pbenchmark.jdbc.username=... -Pbenchmark.jdbc.password=...
+ * 테이블에 사용자가 100만 명보다 적으면 Flyway 마이그레이션 후 채운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserSearchBenchmark {
+
+    private static final int SEEDED_USERS = 1_000_000;
+    private static final int PAGE_SIZE = 100;
+    private static final String[] CITIES = {"Seoul", "Busan", "Incheon", "Daegu", "Daejeon", "Gwangju", "Ulsan", "Suwon", "Jeju", "Sejong"};
+    private static final String[] NAMES = {"Kim", "Lee", "Park", "Choi", "Jung", "Kang", "Cho", "Yoon", "Jang", "Lim"};
+
+    private UsersSearchRepositoryImpl repository;
+
+    @Setup
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:search_benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"),
+                System.getProperty("benchmark.jdbc.username", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""));
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        seed(new JdbcTemplate(dataSource));
+        repository = new UsersSearchRepositoryImpl(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from ourusers", Integer.class);
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = count == null ? 1 : count + 1; i <= SEEDED_USERS; i++) {
+            String email = "user" + i + "@example.com";
+            String name = NAMES[i % NAMES.length] + " " + i;
+            rows.add(new Object[]{email, OurUsers.normalizeEmail(email), name, "hash", CITIES[(i / 7) % CITIES.length], i % 100 == 0 ? "ADMIN" : "USER"});
+            if (rows.size() == 10_000) {
+                jdbcTemplate.batchUpdate("insert into ourusers (email, email_normalized, name, password, city, role) values (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into ourusers (email, email_normalized, name, password, city, role) values (?, ?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    // 전체의 1% 인 역할 (역할 인덱스)
+    @Benchmark
+    public List<UserView> searchByRole() {
+        return repository.search(new UserSearchCriteria("ADMIN", null, null, null), null, 0, PAGE_SIZE + 1);
+    }
+
+    // 도시 + 이름 앞부분
+    @Benchmark
+    public List<UserView> searchByCityAndNamePrefix() {
+        return repository.search(new UserSearchCriteria(null, "Busan", "Park 12", null), null, 0, PAGE_SIZE + 1);
+    }
+
+    // 넓은 이름 앞부분 (Kim, Kang 으로 전체의 20% 가 일치, (이름, ID) 순서로 limit 건만 읽는다)
+    @Benchmark
+    public List<UserView> searchByBroadNamePrefix() {
+        return repository.search(new UserSearchCriteria(null, null, "K", null), null, 0, PAGE_SIZE + 1);
+    }
+
+    // 넓은 이름 앞부분의 중간 페이지
+    @Benchmark
+    public List<UserView> searchByBroadNamePrefixDeepPage() {
+        return repository.search(new UserSearchCriteria(null, null, "K", null), "Kim 500000", 500_000, PAGE_SIZE + 1);
+    }
+
+    // 역할 + 도시 (복합 인덱스)
+    @Benchmark
+    public List<UserView> searchByRoleAndCity() {
+        return repository.search(new UserSearchCriteria("ADMIN", "Seoul", null, null), null, 0, PAGE_SIZE + 1);
+    }
+
+    // 이메일 앞부분 (정규화된 이메일 유니크 인덱스)
+    @Benchmark
+    public List<UserView> searchByEmailPrefix() {
+        return repository.search(new UserSearchCriteria(null, null, null, "USER4242"), null, 0, PAGE_SIZE + 1);
+    }
+
+    // 중간 페이지 (키셋이므로 앞 페이지 수와 관계없이 일정)
+    @Benchmark
+    public List<UserView> searchByCityDeepPage() {
+        return repository.search(new UserSearchCriteria(null, "Seoul", null, null), null, 900_000, PAGE_SIZE + 1);
+    }
+
+    // 결과 수 (10001 건에서 멈춤)
+    @Benchmark
+    public long countByCityCapped() {
+        return repository.countUpTo(new UserSearchCriteria(null, "Seoul", null, null), 10_001);
+    }
+}
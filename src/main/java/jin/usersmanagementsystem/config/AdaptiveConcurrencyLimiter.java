@@ -0,0 +1,79 @@
+package jin.usersmanagementsystem.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * 응답 시간에 따라 동시 처리 수를 조절하는 리미터 (AIMD)
+ * 응답이 목표 시간 안에 끝나면 한도를 조금씩 올리고 (가산 증가), 목표 시간을 넘기거나 과부하로 실패하면 한도를 비율로 줄인다 (승산 감소).
+ * 한도를 넘는 요청은 대기시키지 않고 바로 거부하므로, 공격 중에도 허용된 요청의 응답 시간이 일정하게 유지된다.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;   // 과부하 시 한도를 10% 줄인다
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;                // double 한도 (Double.doubleToLongBits, CAS 로 갱신)
+
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(Math.min(maxLimit, Math.max(minLimit, initialLimit))));
+    }
+
+    // 한도 안이면 true (처리가 끝나면 반드시 release 를 호출)
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos 요청 처리 시간
+     * @param overloaded   과부하로 실패한 요청 (예: 해싱 대기열이 가득 차서 503)
+     */
+    void release(long latencyNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        if (overloaded || latencyNanos > targetLatencyNanos) {
+            updateLimit(limit -> Math.max(minLimit, limit * BACKOFF_RATIO));
+        } else if (current * 2 >= getLimit()) {   // 한도의 절반 이상을 사용 중일 때만 올린다 (한가할 때 한도가 계속 커지지 않도록)
+            updateLimit(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+        }
+    }
+
+    int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        while (true) {
+            long bits = limitBits.get();
+            long updated = Double.doubleToLongBits(update.applyAsDouble(Double.longBitsToDouble(bits)));
+            if (bits == updated || limitBits.compareAndSet(bits, updated)) {
+                return;
+            }
+        }
+    }
+}
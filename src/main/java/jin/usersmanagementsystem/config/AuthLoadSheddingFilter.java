@@ -0,0 +1,116 @@
+package jin.usersmanagementsystem.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jin.usersmanagementsystem.service.AuthRateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)  // 보안 필터 / 컨트롤러(해싱, DB 조회)보다 먼저 거부
+public class AuthLoadSheddingFilter extends OncePerRequestFilter {
+
+    /**
+     * /auth 요청 과부하 차단
+     * 1. 클라이언트 IP 별 요청 한도 (AuthRateLimiter), 넘으면 429
+     *    IP 는 request.getRemoteAddr() 이므로 로드 밸런서 / 프록시 뒤에서는 server.forward-headers-strategy=native (또는 framework) 를 설정해야 한다.
+     *    설정하지 않으면 모든 클라이언트가 프록시 IP 하나로 보여 한도 하나를 나누어 쓴다.
+     * 2. 경로 종류별(login / register / token) 동시 처리 한도 (AdaptiveConcurrencyLimiter), 넘으면 503
+     * 두 경우 모두 Retry-After 헤더와 함께 바로 응답하므로 거부된 요청은 BCrypt 해싱과 DB 조회를 하지 않는다.
+     * 이메일별 한도는 요청 본문을 읽어야 하므로 UsersManagementService 에서 해싱 전에 확인한다.
+     */
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    private AdaptiveConcurrencyLimiter loginLimiter;
+    private AdaptiveConcurrencyLimiter registerLimiter;
+    private AdaptiveConcurrencyLimiter tokenLimiter;
+
+    @PostConstruct
+    void initLimiters() {
+        // 로그인 / 회원가입은 BCrypt 해싱을 하므로 한도를 작게, 토큰 갱신 / 로그아웃은 서명 검증뿐이므로 크게 잡는다.
+        loginLimiter = limiter("login", 32, 4, 256, 500);
+        registerLimiter = limiter("register", 16, 2, 128, 500);
+        tokenLimiter = limiter("token", 64, 8, 1024, 100);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = authRateLimiter.tryAcquireIp(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, AuthRateLimiter.toRetryAfterSeconds(waitNanos), "ip", "Too many requests");
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request.getRequestURI());
+        if (!limiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, limiter.getName(), "Server is busy, retry later");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean overloaded = true;   // 예외로 끝난 요청도 과부하 신호로 본다
+        try {
+            filterChain.doFilter(request, response);
+            overloaded = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();   // 해싱 대기열이 가득 찬 경우 (GlobalExceptionHandler)
+        } finally {
+            limiter.release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String uri) {
+        if (uri.startsWith("/auth/login")) {
+            return loginLimiter;
+        }
+        if (uri.startsWith("/auth/register")) {
+            return registerLimiter;
+        }
+        return tokenLimiter;
+    }
+
+    // 직렬화 없이 고정된 형식의 JSON 으로 바로 응답
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String reason, String message) throws IOException {
+        meterRegistry.counter("auth.load.shedding.rejected", "reason", reason).increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"statusCode\":" + status.value() + ",\"error\":\"" + message + "\"}");
+    }
+
+    // auth.limiter.<name>.initial-limit / min-limit / max-limit / target-latency-ms 로 변경 가능
+    private AdaptiveConcurrencyLimiter limiter(String name, int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis) {
+        String prefix = "auth.limiter." + name + ".";
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(name,
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                environment.getProperty(prefix + "target-latency-ms", Long.class, targetLatencyMillis));
+        Gauge.builder("auth.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).tag("route", name).register(meterRegistry);
+        Gauge.builder("auth.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight).tag("route", name).register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,58 @@
+package jin.usersmanagementsystem.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class ContentEncodingConfig {
+
+    /**
+     * CBOR 응답 (Accept: application/cbor)
+     * JSON 과 같은 ReqRes 구조를 바이너리로 인코딩하므로 크기가 작고 직렬화가 빠르다. 서비스 간 호출에서 선택적으로 사용
+     * 애플리케이션 ObjectMapper 와 같은 설정(Jackson2ObjectMapperBuilder)으로 만든다.
+     * 기본 CBOR 컨버터 자리(JSON 컨버터 뒤)를 대체하므로 Accept 헤더가 없으면 지금처럼 JSON 으로 응답한다.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * 응답 압축 (Accept-Encoding: gzip)
+     * minResponseSize 보다 작은 응답은 압축 비용이 더 크므로 그대로 보낸다.
+     * server.compression.* 기본값(비활성)을 적용하는 Spring Boot 의 설정 이후에 실행되도록 가장 낮은 우선순위로 둔다.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressionCustomizer(
+            @Value("${users.compression.enabled:true}") boolean enabled,
+            @Value("${users.compression.min-response-size:2KB}") DataSize minResponseSize) {
+        return new CompressionCustomizer(enabled, minResponseSize);
+    }
+
+    private record CompressionCustomizer(boolean enabled, DataSize minResponseSize)
+            implements WebServerFactoryCustomizer<ConfigurableServletWebServerFactory>, Ordered {
+
+        @Override
+        public void customize(ConfigurableServletWebServerFactory factory) {
+            Compression compression = new Compression();
+            compression.setEnabled(enabled);
+            compression.setMinResponseSize(minResponseSize);
+            compression.setMimeTypes(new String[]{"application/json", "application/cbor", "application/x-ndjson", "text/plain"});
+            factory.setCompression(compression);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
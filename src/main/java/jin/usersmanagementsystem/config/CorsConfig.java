@@ -22,7 +22,7 @@ public class CorsConfig {
             @Override
             public void addCorsMappings(CorsRegistry registry) {  // CORS 매핑을 추가하는 역할을 합니다. CorsRegistry를 사용하여 특정 경로에 대한 CORS 규칙을 정의
                 registry.addMapping("/**")             // 애플리케이션의 모든 경로("/**")에 대해 CORS를 적용하도록 설정합니다. 이 의미는 애플리케이션의 모든 URL 경로에 대해 CORS 규칙이 적용
-                        .allowedMethods("GET", "POST", "PUT", "DELETE") //  CORS 규칙에 따라 허용할 HTTP 메서드를 지정합니다. 이 설정에서는 GET, POST, PUT, DELETE 메서드가 허용
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE") //  CORS 규칙에 따라 허용할 HTTP 메서드를 지정합니다. 이 설정에서는 GET, POST, PUT, PATCH, DELETE 메서드가 허용
                         .allowedOrigins("*");  //  모든 도메인("*")에서 오는 요청을 허용합니다. 즉, 어떤 도메인에서든 애플리케이션의 리소스에 접근 가능
             }
         };
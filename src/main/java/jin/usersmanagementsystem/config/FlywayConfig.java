@@ -0,0 +1,20 @@
+package jin.usersmanagementsystem.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    /**
+     * 스키마 마이그레이션 (src/main/resources/db/migration)
+     * Flyway 도입 전에 Hibernate 가 만든 테이블이 있는 DB 는 V1(기준 스키마)을 적용된 것으로 기록하고 V2 부터 적용
+     */
+    @Bean
+    public FlywayConfigurationCustomizer flywayBaselineCustomizer() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("1");
+    }
+}
@@ -1,13 +1,18 @@
 package jin.usersmanagementsystem.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jin.usersmanagementsystem.service.JWTUtils;
 import jin.usersmanagementsystem.service.OurUserDetailsService;
+import jin.usersmanagementsystem.service.TokenDenylist;
+import jin.usersmanagementsystem.service.TokenVersionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +21,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JWTAuthFilter extends OncePerRequestFilter { //  각 요청 당 한 번씩 필터가 실행됩니다. JWT를 기반으로 인증을 처리하기 위해 OncePerRequestFilter 사용
@@ -29,6 +35,18 @@ public class JWTAuthFilter extends OncePerRequestFilter { //  각 요청 당 한
     @Autowired
     private OurUserDetailsService ourUserDetailsService;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;               // 로그아웃 등으로 폐기된 토큰 (메모리에서 확인, DB 조회 없음)
+
+    @Autowired
+    private RequestPhaseMetrics requestPhaseMetrics;   // JWT 검증 시간 측정
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;   // true 이면 토큰의 클레임만으로 인증 (DB / OurUserDetailsService 를 조회하지 않음)
+
 
     /**
      * JWT 추출 및 검증: doFilterInternal 메서드에서는 주로 요청 헤더에서 JWT를 추출하고, 그 토큰을 검증하는 작업을 수행
@@ -47,6 +65,7 @@ public class JWTAuthFilter extends OncePerRequestFilter { //  각 요청 당 한
          */
         final String authHeader = request.getHeader("Authorization"); // 헤더에서 토큰을 추출하여 헤더로 저장함 -> Authorization 인증이 된다.
         final String jwtToken;
+        final Claims claims;    // 한 번만 검증한 토큰의 클레임
         final String userEmail; // 사용자 이름으로 사용
 
         if (authHeader == null || authHeader.isBlank()) {
@@ -56,16 +75,27 @@ public class JWTAuthFilter extends OncePerRequestFilter { //  각 요청 당 한
 
 
         jwtToken = authHeader.substring(7);         // "Authorization" 헤더에서 "Bearer "라는 접두사(7자)를 제외한 실제 JWT를 추출
-        userEmail = jwtUtils.extractUsername(jwtToken);       // 추출한 JWT에서 사용자 이메일(또는 사용자 이름)을 가져옵니다. 이 이메일은 JWT에 포함된 클레임(Claims)에서 가져옵니다.
+        claims = requestPhaseMetrics.record(RequestPhaseMetrics.JWT_VERIFY, () -> jwtUtils.extractAllClaims(jwtToken)); // 서명 검증과 파싱을 한 번만 수행 (같은 토큰이 반복되면 캐시된 클레임을 사용)
+        userEmail = claims.getSubject();                       // 추출한 JWT에서 사용자 이메일(또는 사용자 이름)을 가져옵니다. 이 이메일은 JWT에 포함된 클레임(Claims)에서 가져옵니다.
+
+        // refreshToken 이나 폐기된 토큰은 인증하지 않고 다음 필터로 전달 (보호된 경로는 Spring Security 가 거부)
+        if (jwtUtils.isRefreshToken(claims) || tokenDenylist.isRevoked(claims.getId(), claims.getExpiration())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
         /**
          * 사용자 인증 및 Spring Security 컨텍스트 설정
          * 사용자 이메일이 유효하고, 현재 SecurityContext에 인증 정보가 없는 경우에만 인증 절차를 진행
          */
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (statelessEnabled && authenticateFromClaims(claims, request)) {  // 클레임에 사용자 ID / 역할 / 버전이 있는 토큰은 DB 조회 없이 인증
+                filterChain.doFilter(request, response);
+                return;
+            }
             UserDetails userDetails = ourUserDetailsService.loadUserByUsername(userEmail); // 이메일을 사용하여 UserDetails 객체를 로드(객체는 사용자에 대한 권한, 비밀번호 등의 정보를 포함)
 
-            if (jwtUtils.isTokenValid(jwtToken, userDetails)) {  // JWT가 유효한지 확인합니다. 유효하다면, 아래의 코드를 통해 사용자 인증을 진행
+            if (jwtUtils.isTokenValid(claims, userDetails)) {  // JWT가 유효한지 확인합니다. 유효하다면, 아래의 코드를 통해 사용자 인증을 진행
                 SecurityContext securityContext = SecurityContextHolder.getContext();
                 UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()                     // UserDetails를 사용하여 인증 토큰을 생성
@@ -78,4 +108,29 @@ public class JWTAuthFilter extends OncePerRequestFilter { //  각 요청 당 한
         // 청을 다음 필터로 전달하여 나머지 필터링 또는 요청 처리가 계속되도록 합니다. JWT가 검증되었고, SecurityContext에 설정되었기 때문에 이후의 요청은 인증된 사용자로 처리
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * stateless 인증 모드
+     * 서명이 검증된 클레임(사용자 ID, 역할, 토큰 버전)으로 바로 인증 정보를 만든다.
+     * 토큰 버전이 TokenVersionRegistry 의 최소 버전보다 낮으면 (수정 / 삭제된 사용자) 인증하지 않는다.
+     * 클레임이 없는 이전 형식의 토큰이면 false 를 반환하여 기존 방식(DB 조회)으로 인증하도록 한다.
+     */
+    private boolean authenticateFromClaims(Claims claims, HttpServletRequest request) {
+        Integer userId = claims.get(JWTUtils.CLAIM_USER_ID, Integer.class);
+        String role = claims.get(JWTUtils.CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(JWTUtils.CLAIM_TOKEN_VERSION, Integer.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            return false;
+        }
+        if (tokenVersionRegistry.isAccepted(userId, tokenVersion)) {
+            UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                    claims.getSubject(), null, List.of(new SimpleGrantedAuthority(role))   // principal 은 이메일 (authentication.getName() 으로 조회 가능)
+            );
+            token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            securityContext.setAuthentication(token);
+            SecurityContextHolder.setContext(securityContext);
+        }
+        return true; // 무효화된 토큰도 DB 조회로 넘기지 않고 인증 없이 다음 필터로 전달
+    }
 }
@@ -0,0 +1,64 @@
+package jin.usersmanagementsystem.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 지연 시간 분포(p50 / p95 / p99)를 계산할 타이머
+     * - http.server.requests: 컨트롤러 엔드포인트별 (uri 태그)
+     * - spring.data.repository.invocations: UsersRepo 메서드별
+     * - request.phase: 요청 처리 단계별 (RequestPhaseMetrics)
+     * - password.hashing: 해싱 스레드 풀에서의 실제 해싱 시간
+     */
+    private static final List<String> PERCENTILE_METERS = List.of(
+            "http.server.requests", "spring.data.repository.invocations", "request.phase", "password.hashing");
+
+    @Bean
+    public MeterFilter percentilesMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (PERCENTILE_METERS.contains(id.getName())) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(0.5, 0.95, 0.99)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    /**
+     * 레포지토리 호출 시간을 현재 요청의 단계별 합계에 더하는 리스너를 모든 레포지토리에 등록
+     * (타이머 자체는 Spring Boot 가 spring.data.repository.invocations 로 기록)
+     */
+    @Bean
+    public static BeanPostProcessor repositoryPhaseListenerPostProcessor(ObjectProvider<RequestPhaseMetrics> requestPhaseMetrics) {
+        RepositoryMethodInvocationListener listener = invocation -> requestPhaseMetrics.getObject().addToCurrentRequest(
+                RequestPhaseMetrics.REPOSITORY_PREFIX + invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName(),
+                invocation.getDuration(TimeUnit.NANOSECONDS));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package jin.usersmanagementsystem.config;
+
+import jin.usersmanagementsystem.service.PasswordHashingService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 해싱 / 비교를 PasswordHashingService 의 전용 스레드 풀에 맡기는 PasswordEncoder
+ * DaoAuthenticationProvider 와 UsersManagementService 가 그대로 사용하면서도 BCrypt 연산은 요청 스레드 밖에서 실행된다.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordHashingService passwordHashingService;
+
+    public OffloadingPasswordEncoder(PasswordHashingService passwordHashingService) {
+        this.passwordHashingService = passwordHashingService;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return passwordHashingService.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return passwordHashingService.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordHashingService.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,44 @@
+package jin.usersmanagementsystem.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 요청(스레드)이 쓰기 트랜잭션을 실행했는지 기록
+ * 쓰기 이후의 읽기 전용 트랜잭션은 복제 지연으로 방금 쓴 데이터가 안 보일 수 있으므로 주 DB 로 보낸다. (ReplicaRoutingDataSource)
+ * 요청이 끝나면 ReadYourWritesFilter 가 지운다.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void markWrite() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_ONLY.remove();
+    }
+
+    /**
+     * 읽기 전용이라도 주 DB 에서 실행 (예: 복제 DB 에 아직 없을 수 있는 방금 가입한 사용자 조회)
+     * 라우팅을 사용하지 않으면 아무 영향이 없다.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isPrimaryOnly()) {
+            return action.get();
+        }
+        markWrite();
+        try {
+            return action.get();
+        } finally {
+            clear();
+        }
+    }
+}
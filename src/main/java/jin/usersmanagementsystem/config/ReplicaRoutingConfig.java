@@ -0,0 +1,55 @@
+package jin.usersmanagementsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    /**
+     * 복제 DB 라우팅 (spring.datasource.replica.url 이 있을 때만 사용)
+     * spring.datasource.*         : 주 DB (spring.datasource.hikari.* 커넥션 풀 설정)
+     * spring.datasource.replica.* : 복제 DB (url / username / password, spring.datasource.replica.hikari.* 커넥션 풀 설정)
+     * spring.datasource.replica.down-seconds : 복제 DB 연결 실패 후 다시 사용하기까지의 시간 (기본 30초)
+     */
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties properties = binder.bind("spring.datasource.replica", DataSourceProperties.class).get();
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setConnectionTimeout(1000);          // 복제 DB 장애 시 오래 기다리지 않고 주 DB 로 넘어간다
+        dataSource.setInitializationFailTimeout(-1);    // 복제 DB 가 없어도 애플리케이션은 시작
+        binder.bind("spring.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 Environment environment) {
+        long downSeconds = environment.getProperty("spring.datasource.replica.down-seconds", Long.class, 30L);
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, downSeconds * 1000));
+    }
+}
@@ -0,0 +1,68 @@
+package jin.usersmanagementsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 읽기 전용 트랜잭션은 복제 DB, 나머지는 주 DB 로 연결
+ * 트랜잭션이 시작된 뒤 첫 SQL 을 실행할 때 커넥션을 가져와야 읽기 전용 여부를 알 수 있으므로 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ * - 같은 요청에서 쓰기를 실행한 뒤의 읽기는 주 DB (ReadYourWritesContext)
+ * - 복제 DB 커넥션을 얻지 못하면 주 DB 로 연결하고, replicaDownMillis 동안 복제 DB 를 사용하지 않는다.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long replicaDownMillis;
+    private volatile long replicaDownUntil;   // 이 시각(ms)까지 복제 DB 를 사용하지 않음
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long replicaDownMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaDownMillis = replicaDownMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markReplicaDown(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();   // 계정은 각 커넥션 풀 설정을 사용
+    }
+
+    public boolean isReplicaAvailable() {
+        return System.currentTimeMillis() >= replicaDownUntil;
+    }
+
+    private boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWritesContext.markWrite();   // 이 요청의 이후 읽기는 주 DB 로
+            }
+            return false;
+        }
+        return !ReadYourWritesContext.isPrimaryOnly() && isReplicaAvailable();
+    }
+
+    private void markReplicaDown(SQLException e) {
+        replicaDownUntil = System.currentTimeMillis() + replicaDownMillis;
+        log.warn("Replica datasource unavailable, routing reads to primary for {} ms: {}", replicaDownMillis, e.getMessage());
+    }
+}
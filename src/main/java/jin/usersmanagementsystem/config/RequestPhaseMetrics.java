@@ -0,0 +1,73 @@
+package jin.usersmanagementsystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class RequestPhaseMetrics {
+
+    /**
+     * 요청 처리 단계별 시간 측정
+     * 단계마다 request.phase{phase=...} 타이머(p50 / p95 / p99, MetricsConfig)에 기록하고,
+     * 현재 요청 스레드의 단계별 합계를 모아 SlowRequestLogFilter 가 느린 요청의 시간 분포를 로그로 남길 수 있게 한다.
+     */
+    public static final String JWT_VERIFY = "jwt.verify";             // JWT 서명 검증 / 파싱
+    public static final String USER_LOOKUP = "user.lookup";           // loadUserByUsername
+    public static final String PASSWORD_ENCODE = "password.encode";   // 비밀번호 해싱 (대기열 대기 포함)
+    public static final String PASSWORD_MATCH = "password.match";     // 비밀번호 비교 (대기열 대기 포함)
+    public static final String REPOSITORY_PREFIX = "repository.";     // UsersRepo 메서드 (시간은 spring.data.repository.invocations 타이머에 기록)
+
+    private static final String TIMER_NAME = "request.phase";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<String, long[]>> currentRequest = new ThreadLocal<>(); // 단계 -> {호출 횟수, 누적 나노초}
+
+    // 작업 시간을 측정하여 기록
+    public <T> T record(String phase, Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void record(String phase, long nanos) {
+        timers.computeIfAbsent(phase, name -> Timer.builder(TIMER_NAME).tag("phase", name).register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        addToCurrentRequest(phase, nanos);
+    }
+
+    // 타이머는 다른 곳에서 기록하고, 현재 요청의 단계별 합계에만 더한다.
+    public void addToCurrentRequest(String phase, long nanos) {
+        Map<String, long[]> phases = currentRequest.get();
+        if (phases != null) {
+            long[] total = phases.computeIfAbsent(phase, name -> new long[2]);
+            total[0]++;
+            total[1] += nanos;
+        }
+    }
+
+    // 요청 시작 (SlowRequestLogFilter)
+    void startRequest() {
+        currentRequest.set(new LinkedHashMap<>());
+    }
+
+    // 요청 종료, 단계별 합계를 반환
+    Map<String, long[]> finishRequest() {
+        Map<String, long[]> phases = currentRequest.get();
+        currentRequest.remove();
+        return phases == null ? Map.of() : phases;
+    }
+}
@@ -0,0 +1,12 @@
+package jin.usersmanagementsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 작업 실행 (만료된 토큰 폐기 목록 정리 등)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
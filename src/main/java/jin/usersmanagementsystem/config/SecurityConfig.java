@@ -1,6 +1,7 @@
 package jin.usersmanagementsystem.config;
 
 import jin.usersmanagementsystem.service.OurUserDetailsService;
+import jin.usersmanagementsystem.service.PasswordHashingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,7 +14,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,6 +26,8 @@ public class SecurityConfig {
     private OurUserDetailsService ourUserDetailsService;
     @Autowired
     private JWTAuthFilter jwtAuthFilter;
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
     /**
      * request -> request.requestMatchers 경로로 들어오는 요청은 인증 없이 접근할 수 있도록 허용
@@ -54,13 +56,14 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider(); // DaoAuthenticationProvider: Spring Security에서 사용자 인증을 처리하는 기본 제공 인증 프로바이더
         daoAuthenticationProvider.setUserDetailsService(ourUserDetailsService);  // 사용자 정보를 로드할 서비스를 설정
-        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());        // 비밀번호를 암호화하는 인코더를 설정합니다. 여기서는 BCryptPasswordEncoder를 사용
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());        // 비밀번호를 암호화하는 인코더를 설정합니다. 여기서는 전용 스레드 풀에서 실행되는 BCrypt 를 사용
+        daoAuthenticationProvider.setUserDetailsPasswordService(ourUserDetailsService); // 로그인 성공 시 저장된 해시가 현재 정책(cost, 형식)과 다르면 다시 해싱하여 저장
         return daoAuthenticationProvider;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();  // BCrypt는 강력한 해시 알고리즘을 사용하여 비밀번호를 저장
+        return new OffloadingPasswordEncoder(passwordHashingService);  // BCrypt 해싱 / 비교를 요청 스레드가 아닌 전용 스레드 풀(대기열 제한)에서 실행
     }
 
     @Bean
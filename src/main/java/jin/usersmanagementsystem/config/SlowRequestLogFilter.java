@@ -0,0 +1,62 @@
+package jin.usersmanagementsystem.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)  // 보안 필터보다 먼저 실행되어 JWT 검증 시간까지 포함
+public class SlowRequestLogFilter extends OncePerRequestFilter {
+
+    /**
+     * 느린 요청 로그
+     * 요청 전체 시간이 임계값을 넘으면 단계별(JWT 검증, 사용자 조회, 해싱, 레포지토리 호출) 시간 분포를 로그로 남긴다.
+     */
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestLogFilter.class);
+
+    @Autowired
+    private RequestPhaseMetrics requestPhaseMetrics;
+
+    @Value("${metrics.slow-request-threshold-ms:500}")
+    private long slowRequestThresholdMillis;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        requestPhaseMetrics.startRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Map<String, long[]> phases = requestPhaseMetrics.finishRequest();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (elapsedMillis >= slowRequestThresholdMillis) {
+                log.warn("Slow request {} {} -> {} took {} ms, phases: {}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), elapsedMillis, format(phases));
+            }
+        }
+    }
+
+    // {phase=횟수 x 밀리초} 형식
+    private String format(Map<String, long[]> phases) {
+        StringBuilder builder = new StringBuilder("{");
+        phases.forEach((phase, total) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(phase).append('=').append(total[0]).append("x ").append(total[1] / 1_000_000.0).append("ms");
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,45 @@
+package jin.usersmanagementsystem.controller;
+
+import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.service.PasswordHashingRejectedException;
+import jin.usersmanagementsystem.service.PasswordHashingService;
+import jin.usersmanagementsystem.service.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    /**
+     * 비밀번호 해싱 대기열이 가득 찬 경우 503 과 Retry-After 헤더로 바로 응답 (클라이언트는 잠시 후 재시도)
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ReqRes> handlePasswordHashingRejected(PasswordHashingRejectedException e) {
+        ReqRes response = new ReqRes();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setError(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHashingService.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    /**
+     * 이메일별 요청 한도를 넘은 경우 429 와 Retry-After 헤더로 응답
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ReqRes> handleRateLimitExceeded(RateLimitExceededException e) {
+        ReqRes response = new ReqRes();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setError(e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+}
@@ -0,0 +1,127 @@
+package jin.usersmanagementsystem.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class MetricsController {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 메트릭 조회 (ADMIN 전용)
+     * 타이머는 호출 횟수, 평균 / 최대 / p50 / p95 / p99 (밀리초), 분포 요약은 같은 항목을 단위 없이, 카운터와 게이지는 현재 값을 반환
+     * 함수 카운터 / 함수 타이머 / 장기 작업 타이머도 요약하고, 그 외의 메트릭은 measure() 값을 통계 이름별로 반환
+     * prefix 를 지정하면 이름이 prefix 로 시작하는 메트릭만 반환 (예: request.phase, http.server.requests)
+     */
+    @GetMapping("/admin/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics(@RequestParam(required = false) String prefix) {
+        Map<String, Object> result = new TreeMap<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            Meter.Id id = meter.getId();
+            if (prefix != null && !id.getName().startsWith(prefix)) {
+                continue;
+            }
+            if (meter instanceof Timer timer) {
+                result.put(key(id), timerSummary(timer));
+            } else if (meter instanceof Counter counter) {
+                result.put(key(id), counter.count());
+            } else if (meter instanceof Gauge gauge) {
+                result.put(key(id), gauge.value());
+            } else if (meter instanceof DistributionSummary distributionSummary) {
+                result.put(key(id), distributionSummary(distributionSummary));
+            } else if (meter instanceof FunctionCounter functionCounter) {
+                result.put(key(id), functionCounter.count());
+            } else if (meter instanceof FunctionTimer functionTimer) {
+                result.put(key(id), functionTimerSummary(functionTimer));
+            } else if (meter instanceof LongTaskTimer longTaskTimer) {
+                result.put(key(id), longTaskTimerSummary(longTaskTimer));
+            } else {
+                result.put(key(id), measurements(meter));
+            }
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    // 이름{태그=값,...}
+    private String key(Meter.Id id) {
+        StringBuilder builder = new StringBuilder(id.getName());
+        if (!id.getTags().isEmpty()) {
+            builder.append('{');
+            id.getTags().forEach(tag -> builder.append(tag.getKey()).append('=').append(tag.getValue()).append(','));
+            builder.setCharAt(builder.length() - 1, '}');
+        }
+        return builder.toString();
+    }
+
+    private Map<String, Object> timerSummary(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.count());
+        summary.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        summary.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            summary.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return summary;
+    }
+
+    private Map<String, Object> distributionSummary(DistributionSummary distributionSummary) {
+        HistogramSnapshot snapshot = distributionSummary.takeSnapshot();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.count());
+        summary.put("mean", snapshot.mean());
+        summary.put("max", snapshot.max());
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            summary.put("p" + Math.round(percentile.percentile() * 100), percentile.value());
+        }
+        return summary;
+    }
+
+    private Map<String, Object> functionTimerSummary(FunctionTimer functionTimer) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", functionTimer.count());
+        summary.put("meanMs", functionTimer.mean(TimeUnit.MILLISECONDS));
+        summary.put("totalMs", functionTimer.totalTime(TimeUnit.MILLISECONDS));
+        return summary;
+    }
+
+    // 진행 중인 작업 수, 진행 중인 작업들의 경과 시간 합계 / 최대 (밀리초)
+    private Map<String, Object> longTaskTimerSummary(LongTaskTimer longTaskTimer) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("activeTasks", longTaskTimer.activeTasks());
+        summary.put("durationMs", longTaskTimer.duration(TimeUnit.MILLISECONDS));
+        summary.put("maxMs", longTaskTimer.max(TimeUnit.MILLISECONDS));
+        return summary;
+    }
+
+    // 통계 이름(count, total, value ...) -> 값
+    private Map<String, Object> measurements(Meter meter) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Measurement measurement : meter.measure()) {
+            values.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue());
+        }
+        return values;
+    }
+}
@@ -1,50 +1,201 @@
 package jin.usersmanagementsystem.controller;
 
+import jin.usersmanagementsystem.dto.BulkDeleteRequest;
 import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.dto.UserPatchRequest;
+import jin.usersmanagementsystem.dto.UserSearchCriteria;
+import jin.usersmanagementsystem.dto.UserView;
 import jin.usersmanagementsystem.entity.OurUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jin.usersmanagementsystem.service.OurUserDetailsService;
+import jin.usersmanagementsystem.service.UsersBulkService;
 import jin.usersmanagementsystem.service.UsersManagementService;
+import jin.usersmanagementsystem.service.UsersTransferService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 public class UserManagementController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     @Autowired
     private UsersManagementService usersManagementService;
 
+    @Autowired
+    private OurUserDetailsService ourUserDetailsService;
+
+    @Autowired
+    private UsersBulkService usersBulkService;
+
+    @Autowired
+    private UsersTransferService usersTransferService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 회원가입
      */
     @PostMapping("/auth/register")  // HTTP POST 요청을 /auth/register 경로로 매핑합니다. 사용자가 회원가입을 시도할 때 이 경로를 통해 데이터를 전송
-    public ResponseEntity<ReqRes> register(@RequestBody ReqRes reg) { // @RequestBody ReqRes reg: 클라이언트로부터 전송된 JSON 형식의 데이터를 ReqRes 객체로 바인딩
-        return ResponseEntity.ok(usersManagementService.register(reg));  // register 메서드를 호출하여 사용자 등록을 처리하고, 결과를 HTTP 응답 본문에 담아 200 OK 상태 코드와 함께 반환
+    public ResponseEntity<ReqRes> register(@RequestBody ReqRes reg, HttpServletRequest request) { // @RequestBody ReqRes reg: 클라이언트로부터 전송된 JSON 형식의 데이터를 ReqRes 객체로 바인딩
+        ReqRes response = usersManagementService.register(reg, request.getRemoteAddr());  // register 메서드를 호출하여 사용자 등록을 처리하고, 결과를 HTTP 응답 본문에 담아 상태 코드와 함께 반환
+        return ResponseEntity.status(response.getStatusCode()).body(response);  // 이미 가입된 이메일이면 409 Conflict
+    }
+
+    /**
+     * 대량 회원가입 (JSON 배열)
+     * 사용자별 결과(저장 성공, 중복 이메일 등)를 요청 순서대로 반환
+     */
+    @PostMapping(value = "/admin/bulk-register", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ReqRes> bulkRegister(@RequestBody List<ReqRes> users) {
+        ReqRes response = usersBulkService.bulkRegister(users.iterator());
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * 대량 회원가입 (NDJSON 파일 스트리밍, 한 줄에 사용자 한 명)
+     * 요청 본문을 한 번에 읽지 않고 한 줄씩 읽으면서 청크 단위로 저장
+     */
+    @PostMapping(value = "/admin/bulk-register", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ReqRes> bulkRegisterStream(InputStream body) throws IOException {
+        ReqRes response = usersBulkService.bulkRegister(objectMapper.readerFor(ReqRes.class).readValues(body));
+        return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     /**
      * 로그인
      */
     @PostMapping("/auth/login")  // HTTP POST 요청을 /auth/login 경로로 매핑합니다. 사용자가 로그인 요청을 보낼 때 이 경로를 사용
-    public ResponseEntity<ReqRes> login(@RequestBody ReqRes reg) { // @RequestBody ReqRes reg: 클라이언트로부터 전송된 로그인 정보를 ReqRes 객체로 바인딩
-        return ResponseEntity.ok(usersManagementService.login(reg));
+    public ResponseEntity<ReqRes> login(@RequestBody ReqRes reg, HttpServletRequest request) { // @RequestBody ReqRes reg: 클라이언트로부터 전송된 로그인 정보를 ReqRes 객체로 바인딩
+        return ResponseEntity.ok(usersManagementService.login(reg, request.getRemoteAddr()));   // 클라이언트 IP 는 계정별 로그인 실패 한도의 키
+    }
+
+    /**
+     * 토큰 갱신 (요청 본문의 token 에 refreshToken 을 담아서 전송)
+     * 새 access 토큰과 새 refreshToken 을 반환하고, 사용한 refreshToken 은 폐기
+     */
+    @PostMapping("/auth/refresh")
+    public ResponseEntity<ReqRes> refreshToken(@RequestBody ReqRes req) {
+        ReqRes response = usersManagementService.refreshToken(req);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * 로그아웃 (요청 본문의 token / refreshToken 을 폐기)
+     */
+    @PostMapping("/auth/logout")
+    public ResponseEntity<ReqRes> logout(@RequestBody ReqRes req) {
+        return ResponseEntity.ok(usersManagementService.logout(req));
     }
 
     /**
      * 모든 사용자 정보를 조회
+     * If-None-Match 가 마지막 사용자 변경 기록 ETag 와 같으면 사용자를 조회하지 않고 304 Not Modified 로 응답
      */
     @GetMapping("/admin/get-all-users")
-    public ResponseEntity<ReqRes> getAllUsers() { // getAllUsers 메서드를 호출하여 모든 사용자 정보를 가져오고, 결과를 HTTP 응답 본문에 담아 200 OK 상태 코드와 함께 반환
-        return ResponseEntity.ok(usersManagementService.getAllUsers());
+    public ResponseEntity<ReqRes> getAllUsers(WebRequest webRequest) { // getAllUsers 메서드를 호출하여 모든 사용자 정보를 가져오고, 결과를 HTTP 응답 본문에 담아 200 OK 상태 코드와 함께 반환
+        String etag = usersManagementService.getUsersListETag();   // 목록을 조회하기 전에 읽어야 조회 중 변경이 생겨도 다음 요청에서 다시 받는다
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(usersManagementService.getAllUsers());
+    }
+
+    /**
+     * 사용자 목록을 페이지 단위로 조회 (키셋 페이지네이션)
+     * 응답의 nextCursor 를 다음 요청의 cursor 로 전달하면 다음 페이지를 조회
+     */
+    @GetMapping("/admin/get-users-page")
+    public ResponseEntity<ReqRes> getUsersPage(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String city,
+                                               @RequestParam(required = false) String role) {
+        ReqRes response = usersManagementService.getUsersPage(cursor, size, city, role);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * 사용자 검색 (역할 / 도시 일치, 이름 / 이메일 앞부분 일치)
+     * 첫 페이지 응답에 결과 수(최대 10000)를 포함하고, nextCursor 로 다음 페이지를 조회
+     */
+    @GetMapping("/admin/search-users")
+    public ResponseEntity<ReqRes> searchUsers(@RequestParam(required = false) String role,
+                                              @RequestParam(required = false) String city,
+                                              @RequestParam(required = false) String name,
+                                              @RequestParam(required = false) String email,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size) {
+        UserSearchCriteria criteria = new UserSearchCriteria(blankToNull(role), blankToNull(city), blankToNull(name), blankToNull(email));
+        ReqRes response = usersManagementService.searchUsers(criteria, cursor, size);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * 사용자 내보내기 (format=ndjson 이면 한 줄에 사용자 한 명, csv 이면 헤더 + 한 줄에 사용자 한 명)
+     * includePasswordHash=true 이면 비밀번호 해시를 포함 (import-users 에 passwordsHashed=true 로 다시 가져올 수 있다)
+     */
+    @GetMapping("/admin/export-users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String city,
+                                                             @RequestParam(required = false) String role,
+                                                             @RequestParam(defaultValue = UsersTransferService.FORMAT_NDJSON) String format,
+                                                             @RequestParam(defaultValue = "false") boolean includePasswordHash) {
+        if (!UsersTransferService.isSupportedFormat(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        MediaType contentType = UsersTransferService.FORMAT_CSV.equalsIgnoreCase(format) ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = outputStream -> usersTransferService.export(format, city, role, includePasswordHash, outputStream);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    /**
+     * 사용자 가져오기 (요청 본문을 한 행씩 읽으면서 청크 단위로 저장, 이메일이 같은 사용자는 덮어쓴다)
+     * 중단된 경우 응답의 jobId 로 같은 본문을 다시 보내면 커밋된 행은 건너뛴다.
+     */
+    @PostMapping("/admin/import-users")
+    public ResponseEntity<ReqRes> importUsers(InputStream body,
+                                              @RequestParam(defaultValue = UsersTransferService.FORMAT_NDJSON) String format,
+                                              @RequestParam(defaultValue = "false") boolean passwordsHashed,
+                                              @RequestParam(required = false) String jobId,
+                                              @RequestParam(required = false) Integer chunkSize) {
+        ReqRes response = usersTransferService.importUsers(format, body, passwordsHashed, jobId, chunkSize);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * 여러 사용자 ID에 해당하는 사용자 정보를 한 번에 조회 (요청 본문: ID 배열)
+     * 찾은 사용자와 찾지 못한 ID 를 요청 순서대로 반환
+     */
+    @PostMapping("/admin/get-users")
+    public ResponseEntity<ReqRes> getUsersByIds(@RequestBody List<Integer> ids) {
+        ReqRes response = usersManagementService.getUsersByIds(ids);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     /**
      * 특정 사용자 ID에 해당하는 사용자 정보를 조회
      */
     @GetMapping("/admin/get-users/{userId}") // userId 는 경로 변수로, 조회하고자 하는 사용자의 ID를 나타냅니다.
-    public ResponseEntity<ReqRes> getUserById(@PathVariable Integer userId) { // @PathVariable Integer userId: 경로 변수 userId를 메서드의 매개변수로 받아 사용합니다.
-        return ResponseEntity.ok(usersManagementService.getUsersById(userId)); // 특정 사용자 ID에 해당하는 사용자 정보를 가져오고, 결과를 HTTP 응답 본문에 담아 200 OK 상태 코드와 함께 반환
+    public ResponseEntity<ReqRes> getUserById(@PathVariable Integer userId, WebRequest webRequest) { // @PathVariable Integer userId: 경로 변수 userId를 메서드의 매개변수로 받아 사용합니다.
+        String etag = usersManagementService.getUserETag(userId);   // 버전만 조회하여 변경되지 않았으면 304
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return withETag(ResponseEntity.ok(), usersManagementService.getUsersById(userId)); // 특정 사용자 ID에 해당하는 사용자 정보를 가져오고, 결과를 HTTP 응답 본문에 담아 200 OK 상태 코드와 함께 반환
     }
 
     /**
@@ -55,15 +206,29 @@ public class UserManagementController {
         return ResponseEntity.ok(usersManagementService.updateUser(userId, reqres));
     }
 
+    /**
+     * 특정 사용자 ID에 해당하는 사용자 정보를 부분 수정 (전달된 필드만 변경, version 이 없으면 400, 다르면 409)
+     * 응답에 수정된 사용자 (새 version) 를 담는다
+     */
+    @PatchMapping("/admin/update/{userId}")
+    public ResponseEntity<ReqRes> patchUser(@PathVariable Integer userId, @RequestBody UserPatchRequest patch) {
+        ReqRes response = usersManagementService.patchUser(userId, patch);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     /**
      * 현재 인증된 사용자의 프로필 정보를 조회
      */
     @GetMapping("/admin/get-profile")
-    public ResponseEntity<ReqRes> getMyProfile() {
+    public ResponseEntity<ReqRes> getMyProfile(WebRequest webRequest) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication(); // SecurityContextHolder.getContext().getAuthentication(): 현재 요청을 보낸 사용자의 인증 정보를 가져옵니다.
         String email = authentication.getName();           // 인증된 사용자의 이메일을 가져옵니다.
+        String etag = usersManagementService.getMyInfoETag(email);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         ReqRes response = usersManagementService.getMyInfo(email); // 이메일을 기반으로 현재 사용자의 정보를 조회
-        return ResponseEntity.status(response.getStatusCode()).body(response); // 조회된 사용자 정보를 응답 본문에 담아 적절한 HTTP 상태 코드와 함께 반환
+        return withETag(ResponseEntity.status(response.getStatusCode()), response); // 조회된 사용자 정보를 응답 본문에 담아 적절한 HTTP 상태 코드와 함께 반환
     }
 
     /**
@@ -74,4 +239,47 @@ public class UserManagementController {
         return ResponseEntity.ok(usersManagementService.deleteUser(userId)); // 용자를 삭제하고, 결과를 HTTP 응답 본문에 담아 200 OK 상태 코드와 함께 반환
     }
 
+    /**
+     * 대량 삭제 (ID 목록 또는 role / city 조건)
+     * 청크 단위로 삭제하고 삭제된 사용자 수를 반환
+     */
+    @PostMapping("/admin/bulk-delete")
+    public ResponseEntity<ReqRes> bulkDelete(@RequestBody BulkDeleteRequest request) {
+        ReqRes response = usersBulkService.bulkDelete(request);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * 감사 로그 조회 (사용자 ID, 시간 범위 from / to 는 ISO-8601, 예: 2024-01-01T00:00:00Z)
+     */
+    @GetMapping("/admin/audit")
+    public ResponseEntity<ReqRes> getAuditEvents(@RequestParam(required = false) Integer userId,
+                                                 @RequestParam(required = false) Instant from,
+                                                 @RequestParam(required = false) Instant to,
+                                                 @RequestParam(required = false) Integer limit) {
+        ReqRes response = usersManagementService.getAuditEvents(userId, from, to, limit);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * 인증용 사용자 정보 캐시 통계 조회 (hit / miss / eviction)
+     */
+    @GetMapping("/admin/principal-cache-stats")
+    public ResponseEntity<Map<String, Long>> getPrincipalCacheStats() {
+        return ResponseEntity.ok(ourUserDetailsService.getPrincipalCacheStats());
+    }
+
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // 조회된 사용자의 버전으로 ETag 를 설정 (304 확인 이후에 수정되었더라도 응답 본문과 ETag 가 일치)
+    private ResponseEntity<ReqRes> withETag(ResponseEntity.BodyBuilder builder, ReqRes response) {
+        UserView user = response.getOurUsers();
+        if (user != null) {
+            builder.eTag(UsersManagementService.userETag(user.getId(), user.getVersion()));
+        }
+        return builder.body(response);
+    }
 }
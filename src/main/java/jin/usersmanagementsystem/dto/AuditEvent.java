@@ -0,0 +1,22 @@
+package jin.usersmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 감사 로그 이벤트 (사용자 변경 / 로그인 기록)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEvent {
+
+    private Instant timestamp;
+    private String action;    // AuditLog 의 동작 이름 (USER_REGISTERED 등)
+    private Integer userId;   // 대상 사용자 (알 수 없으면 null)
+    private String actor;     // 요청한 사용자 이메일 (인증 전 요청이면 null)
+    private String detail;    // 이메일 등 추가 정보
+}
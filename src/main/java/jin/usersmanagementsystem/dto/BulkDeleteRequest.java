@@ -0,0 +1,20 @@
+package jin.usersmanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 대량 삭제 요청
+ * ids 를 보내면 해당 사용자만 삭제하고, 없으면 role / city 조건에 맞는 사용자를 모두 삭제한다.
+ * 실수로 전체 사용자를 지우지 않도록 ids 또는 조건 중 하나는 반드시 있어야 한다.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkDeleteRequest {
+
+    private List<Integer> ids;
+    private String role;
+    private String city;
+}
@@ -0,0 +1,23 @@
+package jin.usersmanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRegisterResult {
+
+    public static final String CREATED = "CREATED";                  // 저장 성공
+    public static final String DUPLICATE_EMAIL = "DUPLICATE_EMAIL";  // 이미 존재하거나 요청 안에서 중복된 이메일
+    public static final String INVALID = "INVALID";                  // 이메일 또는 비밀번호 누락
+    public static final String FAILED = "FAILED";                    // 해싱 또는 저장 중 오류
+
+    private int index;      // 요청 목록에서의 위치 (0 부터 시작)
+    private String email;
+    private String status;
+    private String error;
+}
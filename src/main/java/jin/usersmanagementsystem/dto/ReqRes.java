@@ -2,7 +2,6 @@ package jin.usersmanagementsystem.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import jin.usersmanagementsystem.entity.OurUsers;
 import lombok.Data;
 
 import java.util.List;
@@ -23,6 +22,14 @@ public class ReqRes {
     private String role;
     private String email;
     private String password;
-    private OurUsers ourUsers; // 사용자
-    private List<OurUsers> ourUsersList; // 사용자 목록
+    private UserView ourUsers; // 사용자 (비밀번호 제외)
+    private List<UserView> ourUsersList; // 사용자 목록 (비밀번호 제외)
+    private String nextCursor; // 다음 페이지 커서 (마지막 페이지이면 null)
+    private List<BulkRegisterResult> bulkRegisterResults; // 대량 회원가입 결과 (요청 순서대로)
+    private Integer affectedCount; // 삭제 등으로 실제 변경된 행 수
+    private List<Integer> missingIds; // 여러 ID 조회 시 찾지 못한 ID (요청 순서대로)
+    private Long totalCount; // 검색 결과 수 (첫 페이지에만, totalCountCapped 이면 그 이상)
+    private Boolean totalCountCapped; // 검색 결과가 너무 많아 totalCount 까지만 센 경우 true
+    private List<AuditEvent> auditEvents; // 감사 로그 조회 결과 (오래된 순서)
+    private String jobId; // 가져오기 작업 ID (중단된 경우 같은 jobId 로 다시 요청하면 이어서 실행)
 }
@@ -0,0 +1,22 @@
+package jin.usersmanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * 사용자 부분 수정 요청 (PATCH)
+ * null 인 필드는 변경하지 않는다.
+ * version 은 필수이며 (없으면 400), 현재 버전과 같을 때만 수정하고 다르면 409 Conflict (다른 관리자가 먼저 수정한 경우)
+ * 수정에 성공하면 응답의 ourUsers 에 새 버전이 담긴 사용자가 들어 있다.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserPatchRequest {
+
+    private String email;
+    private String name;
+    private String city;
+    private String role;
+    private String password;
+    private Integer version;   // 마지막으로 조회한 사용자 버전
+}
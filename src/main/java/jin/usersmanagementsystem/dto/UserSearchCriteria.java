@@ -0,0 +1,45 @@
+package jin.usersmanagementsystem.dto;
+
+import jin.usersmanagementsystem.entity.OurUsers;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * 사용자 검색 조건 (null 인 조건은 사용하지 않는다)
+ * namePrefix / emailPrefix 는 앞부분 일치 (인덱스 범위 조회)
+ * 앞부분 조건이 있으면 결과는 ID 가 아니라 (정규화된 이메일) 또는 (이름, ID) 순서로 정렬된다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchCriteria {
+
+    private String role;
+    private String city;
+    private String namePrefix;
+    private String emailPrefix;
+
+    // 키셋 페이지네이션의 정렬 키 (이메일 앞부분 -> 정규화된 이메일, 이름 앞부분 -> 이름, 그 외에는 ID 만 사용하므로 null)
+    public String sortKeyOf(UserView user) {
+        if (emailPrefix != null) {
+            return OurUsers.normalizeEmail(user.getEmail());
+        }
+        return namePrefix != null ? user.getName() : null;
+    }
+
+    // 정렬 방식 (커서가 같은 정렬로 만든 것인지 확인하는 데 사용)
+    public String sortType() {
+        if (emailPrefix != null) {
+            return "email";
+        }
+        return namePrefix != null ? "name" : "id";
+    }
+
+    // 검색 조건의 해시 (String.hashCode 기반이라 인스턴스가 달라도 같은 값)
+    public int conditionsHash() {
+        return Objects.hash(role, city, namePrefix, emailPrefix);
+    }
+}
@@ -0,0 +1,25 @@
+package jin.usersmanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 사용자 가져오기(import) 한 행 (CSV 한 줄 또는 NDJSON 한 줄)
+ * id / version 은 내보내기 결과를 그대로 다시 가져올 수 있도록 받기만 하고 사용하지 않는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserTransferRow {
+
+    private Integer id;
+    private String email;
+    private String name;
+    private String city;
+    private String role;
+    private Integer version;
+    private String password;   // 평문 또는 해시 (passwordsHashed)
+}
@@ -0,0 +1,17 @@
+package jin.usersmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 사용자 ID 와 버전 (본문을 조회하지 않고 ETag 를 만들 때 사용)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserVersion {
+
+    private Integer id;
+    private Integer version;
+}
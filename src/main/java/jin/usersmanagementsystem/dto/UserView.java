@@ -0,0 +1,28 @@
+package jin.usersmanagementsystem.dto;
+
+import jin.usersmanagementsystem.entity.OurUsers;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 사용자 조회 응답용 DTO
+ * 화면에 표시하는 컬럼만 담고 비밀번호는 포함하지 않는다.
+ * UsersRepo 의 생성자 기반 쿼리(select new ...)로 바로 조회하므로 엔티티가 영속성 컨텍스트에 올라가지 않는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserView {
+
+    private Integer id;
+    private String email;
+    private String name;
+    private String city;
+    private String role;
+    private Integer version;   // 부분 수정(PATCH) 시 반드시 함께 보내 동시 수정을 감지
+
+    public static UserView from(OurUsers user) {
+        return new UserView(user.getId(), user.getEmail(), user.getName(), user.getCity(), user.getRole(), user.getVersion());
+    }
+}
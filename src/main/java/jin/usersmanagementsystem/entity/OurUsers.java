@@ -1,5 +1,6 @@
 package jin.usersmanagementsystem.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
@@ -8,9 +9,15 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "ourusers")
+@Table(name = "ourusers", indexes = {    // 인덱스는 db/migration 의 마이그레이션으로 생성 (이름을 맞춰 둔다)
+        @Index(name = "ux_ourusers_email_normalized", columnList = "email_normalized", unique = true),
+        @Index(name = "idx_ourusers_role", columnList = "role"),
+        @Index(name = "idx_ourusers_city", columnList = "city"),
+        @Index(name = "idx_ourusers_name", columnList = "name")
+})
 @Data
 public class OurUsers implements UserDetails { // UserDetails : Spring Security 에서 사용자 정보를 본다.
 
@@ -24,6 +31,24 @@ public class OurUsers implements UserDetails { // UserDetails : Spring Security
     private String city;
     private String role;
 
+    @Version
+    private Integer version;        // 낙관적 잠금 버전 (동시에 수정하면 나중 요청이 실패)
+
+    @JsonIgnore
+    @Column(name = "email_normalized")
+    private String emailNormalized; // 소문자 / 공백 제거한 이메일 (유니크 인덱스, 이메일 조회는 항상 이 컬럼으로)
+
+    // 저장 / 수정 전에 정규화된 이메일을 맞춘다.
+    @PrePersist
+    @PreUpdate
+    void syncEmailNormalized() {
+        this.emailNormalized = normalizeEmail(email);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(role)); // 새 목록을 반환 , 이는 단순 부여된 권한이자 규칙이 된다. // 규칙에 따라 사용자가 우리 애플리케이션에서 가지 ㄹ권한은 이것
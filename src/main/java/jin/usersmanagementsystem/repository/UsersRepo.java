@@ -1,13 +1,105 @@
 package jin.usersmanagementsystem.repository;
 
+import jin.usersmanagementsystem.dto.UserVersion;
+import jin.usersmanagementsystem.dto.UserView;
 import jin.usersmanagementsystem.entity.OurUsers;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface UsersRepo extends JpaRepository<OurUsers, Integer> {
+@Transactional(readOnly = true)   // 조회 메서드는 읽기 전용 트랜잭션 (복제 DB 라우팅 사용 시 복제 DB 로 조회), 변경 메서드는 @Transactional 로 따로 지정
+public interface UsersRepo extends JpaRepository<OurUsers, Integer>, UsersSearchRepository {
 
-    // 이메일을 찾기 위한 메서드
-    Optional<OurUsers> findByEmail(String email);
+    // 조회 응답용 DTO 로 필요한 컬럼만 조회 (엔티티를 만들지 않으므로 영속성 컨텍스트 / 변경 감지 비용이 없다)
+    String USER_VIEW_QUERY = "select new jin.usersmanagementsystem.dto.UserView(u.id, u.email, u.name, u.city, u.role, u.version) from OurUsers u";
+
+    // 이메일을 찾기 위한 메서드 (대소문자 / 앞뒤 공백과 관계없이 정규화된 이메일의 유니크 인덱스로 조회)
+    default Optional<OurUsers> findByEmail(String email) {
+        return findByEmailNormalized(OurUsers.normalizeEmail(email));
+    }
+
+    Optional<OurUsers> findByEmailNormalized(String emailNormalized);
+
+    boolean existsByEmailNormalized(String emailNormalized);   // 유니크 인덱스만 확인 (회원가입 중복 검사)
+
+    @Query(USER_VIEW_QUERY + " where u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Integer id);
+
+    @Query(USER_VIEW_QUERY + " where u.emailNormalized = :emailNormalized")
+    Optional<UserView> findViewByEmailNormalized(@Param("emailNormalized") String emailNormalized);
+
+    @Query(USER_VIEW_QUERY + " order by u.id asc")
+    List<UserView> findAllViews();
+
+    // 주어진 정규화된 이메일 중 이미 가입된 이메일 (대량 회원가입 시 중복 확인)
+    @Query("select u.emailNormalized from OurUsers u where u.emailNormalized in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emailsNormalized);
+
+    // 비밀번호 해시만 변경 (로그인 시 해시 재생성)
+    @Transactional
+    @Modifying
+    @Query("update OurUsers u set u.password = :password where u.emailNormalized = :emailNormalized")
+    int updatePasswordByEmailNormalized(@Param("emailNormalized") String emailNormalized, @Param("password") String password);
+
+    // 현재 버전만 조회 (ETag 비교, 부분 수정 실패 시 없는 사용자인지 버전 충돌인지 구분)
+    @Query("select u.version from OurUsers u where u.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Integer id);
+
+    // 수정 / 삭제 전에 현재 정규화된 이메일을 행 잠금과 함께 조회 (호출하는 쪽의 트랜잭션 안에서 실행, 커밋 후 이 이메일로 캐시에서 제거)
+    @Transactional
+    @Query(value = "select email_normalized from ourusers where id = :id for update", nativeQuery = true)
+    Optional<String> findEmailNormalizedByIdForUpdate(@Param("id") Integer id);
+
+    @Query("select new jin.usersmanagementsystem.dto.UserVersion(u.id, u.version) from OurUsers u where u.emailNormalized = :emailNormalized")
+    Optional<UserVersion> findVersionByEmailNormalized(@Param("emailNormalized") String emailNormalized);
+
+    /**
+     * 부분 수정: null 이 아닌 값만 UPDATE 한 번으로 변경하고 버전을 1 올린다.
+     * 현재 버전이 version 과 같을 때만 변경 (낙관적 잠금), 변경된 행 수를 반환
+     */
+    @Transactional
+    @Modifying
+    @Query("update OurUsers u set u.email = coalesce(:email, u.email), u.emailNormalized = coalesce(:emailNormalized, u.emailNormalized)," +
+            " u.name = coalesce(:name, u.name), u.city = coalesce(:city, u.city), u.role = coalesce(:role, u.role)," +
+            " u.password = coalesce(:password, u.password), u.version = u.version + 1" +
+            " where u.id = :id and u.version = :version")
+    int patchUser(@Param("id") Integer id, @Param("version") Integer version,
+                  @Param("email") String email, @Param("emailNormalized") String emailNormalized,
+                  @Param("name") String name, @Param("city") String city, @Param("role") String role,
+                  @Param("password") String password);
+
+    // 여러 ID 를 IN 쿼리 한 번으로 조회 (결과 순서는 보장되지 않는다)
+    @Query(USER_VIEW_QUERY + " where u.id in :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // 한 번의 DELETE 로 삭제하고 삭제된 행 수를 반환 (deleteById 는 엔티티를 먼저 조회한다)
+    @Transactional
+    @Modifying
+    @Query("delete from OurUsers u where u.id = :id")
+    int deleteUserById(@Param("id") Integer id);
+
+    // 대량 삭제용 (호출하는 쪽의 청크 트랜잭션 안에서 실행)
+    @Transactional
+    @Modifying
+    @Query("delete from OurUsers u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // 조건에 맞는 사용자 ID 를 afterId 이후부터 ID 순서로 조회 (대량 삭제를 청크로 나누기 위한 키셋 조회)
+    @Query("select u.id from OurUsers u where u.id > :afterId" +
+            " and (:city is null or u.city = :city) and (:role is null or u.role = :role) order by u.id asc")
+    List<Integer> findIdsAfter(@Param("afterId") Integer afterId, @Param("city") String city, @Param("role") String role, Pageable pageable);
+
+    // 키셋(커서) 페이지 조회: afterId 보다 큰 ID 를 ID 순서로 페이지 크기만큼 가져온다. (OFFSET 없이 PK 인덱스로 바로 이동)
+    @Query(USER_VIEW_QUERY + " where u.id > :afterId" +
+            " and (:city is null or u.city = :city) and (:role is null or u.role = :role) order by u.id asc")
+    List<UserView> findPageAfter(@Param("afterId") Integer afterId, @Param("city") String city, @Param("role") String role, Pageable pageable);
 
 }
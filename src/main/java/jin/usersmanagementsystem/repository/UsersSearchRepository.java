@@ -0,0 +1,19 @@
+package jin.usersmanagementsystem.repository;
+
+import jin.usersmanagementsystem.dto.UserSearchCriteria;
+import jin.usersmanagementsystem.dto.UserView;
+
+import java.util.List;
+
+/**
+ * 사용자 검색 (UsersRepo 에 포함되는 커스텀 레포지토리)
+ */
+public interface UsersSearchRepository {
+
+    // 조건에 맞는 사용자를 (afterKey, afterId) 이후부터 limit 명 조회 (키셋 페이지네이션)
+    // 정렬 키는 UserSearchCriteria.sortKeyOf 와 같고, 첫 페이지는 afterKey = null, afterId = 0
+    List<UserView> search(UserSearchCriteria criteria, String afterKey, int afterId, int limit);
+
+    // 조건에 맞는 사용자 수를 최대 cap 까지만 센다 (cap 이면 그 이상일 수 있음)
+    long countUpTo(UserSearchCriteria criteria, long cap);
+}
@@ -0,0 +1,97 @@
+package jin.usersmanagementsystem.repository;
+
+import jin.usersmanagementsystem.dto.UserSearchCriteria;
+import jin.usersmanagementsystem.dto.UserView;
+import jin.usersmanagementsystem.entity.OurUsers;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+public class UsersSearchRepositoryImpl implements UsersSearchRepository {
+
+    /**
+     * 주어진 조건만 WHERE 절에 넣어 SQL 을 만든다.
+     * JPQL 의 (:city is null or u.city = :city) 형태는 실행 계획이 조건 유무와 관계없이 하나로 정해져 인덱스를 쓰지 못하므로,
+     * 조건마다 필요한 비교만 넣어 역할 / 도시 / 이름 / 이메일 인덱스를 사용하도록 한다.
+     * 앞부분 일치 조건을 ID 순서로 정렬하면 범위에 걸리는 행을 모두 읽고 정렬해야 하므로 (name = 'K' 이면 거의 전체),
+     * 앞부분 조건이 있으면 그 인덱스 순서 (정규화된 이메일) / (이름, ID) 로 페이지를 나누어 limit 건만 읽고 멈춘다.
+     */
+    private static final RowMapper<UserView> USER_VIEW_ROW_MAPPER = (rs, rowNum) -> new UserView(
+            rs.getInt("id"), rs.getString("email"), rs.getString("name"), rs.getString("city"), rs.getString("role"), rs.getInt("version"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UsersSearchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<UserView> search(UserSearchCriteria criteria, String afterKey, int afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("select id, email, name, city, role, version from ourusers where 1 = 1");
+        appendFilters(criteria, sql, params);
+        params.addValue("afterKey", afterKey);
+        params.addValue("afterId", afterId);
+        if (criteria.getEmailPrefix() != null) {
+            if (afterKey != null) {
+                sql.append(" and email_normalized > :afterKey");   // 유니크하므로 ID 는 비교하지 않는다
+            }
+            sql.append(" order by email_normalized");
+        } else if (criteria.getNamePrefix() != null) {
+            if (afterKey != null) {
+                sql.append(" and name >= :afterKey and (name > :afterKey or id > :afterId)");   // (name, id) > (:afterKey, :afterId), 인덱스 범위 조회가 되도록 풀어 쓴다
+            }
+            sql.append(" order by name, id");
+        } else {
+            sql.append(" and id > :afterId order by id");
+        }
+        sql.append(" limit :limit");
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(sql.toString(), params, USER_VIEW_ROW_MAPPER);
+    }
+
+    @Override
+    public long countUpTo(UserSearchCriteria criteria, long cap) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("select count(*) from (select 1 from ourusers where 1 = 1");
+        appendFilters(criteria, sql, params);
+        sql.append(" limit :cap) capped");   // cap 개를 찾으면 더 세지 않는다
+        params.addValue("cap", cap);
+        Long count = jdbcTemplate.queryForObject(sql.toString(), params, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private void appendFilters(UserSearchCriteria criteria, StringBuilder sql, MapSqlParameterSource params) {
+        if (criteria.getRole() != null) {
+            sql.append(" and role = :role");
+            params.addValue("role", criteria.getRole());
+        }
+        if (criteria.getCity() != null) {
+            sql.append(" and city = :city");
+            params.addValue("city", criteria.getCity());
+        }
+        if (criteria.getNamePrefix() != null) {
+            sql.append(" and name like :namePrefix");
+            params.addValue("namePrefix", escapeLike(criteria.getNamePrefix()) + "%");
+        }
+        if (criteria.getEmailPrefix() != null) {
+            sql.append(" and email_normalized like :emailPrefix");   // 소문자로 정규화된 컬럼의 유니크 인덱스
+            params.addValue("emailPrefix", escapeLike(OurUsers.normalizeEmail(criteria.getEmailPrefix())) + "%");
+        }
+    }
+
+    // LIKE 특수 문자(%, _)와 이스케이프 문자(\)를 문자 그대로 비교하도록 이스케이프
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
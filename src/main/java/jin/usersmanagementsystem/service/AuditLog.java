@@ -0,0 +1,435 @@
+package jin.usersmanagementsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jin.usersmanagementsystem.dto.AuditEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import java.util.stream.Stream;
+
+@Component
+public class AuditLog {
+
+    /**
+     * 사용자 변경 / 로그인 감사 로그 (추가만 가능)
+     * 요청 스레드는 이벤트를 잠금 없는 링 버퍼에 넣기만 하고 (CAS 한 번), 파일 쓰기는 전용 스레드 하나가 모아서 처리한다.
+     * 기록은 고정 크기 세그먼트 파일을 메모리 매핑(MappedByteBuffer)하여 이어 쓰고, 일정 간격으로 force (fsync) 한다.
+     * 버퍼가 가득 차면 요청을 기다리게 하지 않고 이벤트를 버린다 (audit.events.dropped 지표).
+     * 따라서 마지막 force 이후의 기록과 버퍼에 남아 있던 이벤트는 프로세스가 비정상 종료되면 잃을 수 있다.
+     * audit.retention-days 가 0 이면 세그먼트를 지우지 않으므로 디스크 사용량이 계속 늘어난다.
+     * 0 보다 크면 시작할 때와 세그먼트를 바꿀 때마다 마지막 기록이 보관 기간보다 오래된 세그먼트를 지운다.
+     *
+     * 기록 형식: [길이 int][CRC32C int][시간 long][사용자 ID int][동작][요청자][상세] (문자열은 [바이트 수 short][UTF-8], null 이면 -1)
+     * 길이는 기록의 나머지를 다 쓴 뒤에 쓰므로, 길이가 0 인 위치가 세그먼트의 끝이다.
+     * 길이만 기록되고 내용은 디스크에 반영되지 않은 채 종료되면 0 으로 채워진 내용이 남을 수 있으므로,
+     * 읽을 때 CRC32C 가 맞지 않는 첫 기록에서 멈춘다.
+     */
+    public static final String USER_REGISTERED = "USER_REGISTERED";
+    public static final String USER_UPDATED = "USER_UPDATED";
+    public static final String USER_PATCHED = "USER_PATCHED";
+    public static final String USER_DELETED = "USER_DELETED";
+    public static final String LOGIN_SUCCEEDED = "LOGIN_SUCCEEDED";
+    public static final String LOGIN_FAILED = "LOGIN_FAILED";
+    public static final String USERS_EXPORTED = "USERS_EXPORTED";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.log");
+    private static final int NO_USER_ID = Integer.MIN_VALUE;
+    private static final int MAX_FIELD_CHARS = 256;     // 문자열 필드 최대 길이 (UTF-8 로 768 바이트 이하)
+    private static final int MAX_RECORD_BYTES = 8 + 4 + 3 * (2 + MAX_FIELD_CHARS * 3);   // 길이 / CRC 를 제외한 내용
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.dir:audit-log}")
+    private String directory;          // 세그먼트 파일 디렉터리
+
+    @Value("${audit.segment-size-bytes:16777216}")
+    private int segmentSizeBytes;      // 세그먼트 파일 하나의 크기 (가득 차면 다음 파일)
+
+    @Value("${audit.buffer-capacity:65536}")
+    private int bufferCapacity;        // 링 버퍼 크기 (쓰기 스레드가 따라가지 못할 때 쌓아둘 이벤트 수)
+
+    @Value("${audit.batch-size:1024}")
+    private int batchSize;             // 한 번에 기록하는 최대 이벤트 수
+
+    @Value("${audit.fsync-interval-ms:1000}")
+    private long fsyncIntervalMs;      // force (fsync) 간격
+
+    @Value("${audit.idle-park-micros:500}")
+    private long idleParkMicros;       // 버퍼가 비었을 때 쓰기 스레드가 쉬는 시간
+
+    @Value("${audit.retention-days:0}")
+    private long retentionDays;        // 세그먼트 보관 기간 (0 이면 지우지 않는다)
+
+    private LongSupplier clock = System::currentTimeMillis;   // 보관 기간 판단에 쓰는 시계 (테스트에서는 고정 시계)
+
+    private MpscRingBuffer<AuditEvent> buffer;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();   // 오래된 순서
+    private Segment current;           // 쓰기 중인 세그먼트 (쓰기 스레드 전용)
+    private FileChannel currentChannel;
+    private MappedByteBuffer currentMapping;
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_BYTES);
+    private final CRC32C checksum = new CRC32C();
+    private int scratchChecksum;       // scratch 에 인코딩한 내용의 CRC32C
+    private Thread writer;
+    private volatile boolean running;
+    private Counter droppedCounter;
+    private Counter writtenCounter;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            recoverSegments(dir);
+            openForAppend(dir);
+            deleteExpiredSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit log directory " + directory, e);
+        }
+        Gauge.builder("audit.buffer.depth", buffer, MpscRingBuffer::size).register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.events.dropped").register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.events.written").register(meterRegistry);
+
+        this.running = true;
+        this.writer = new Thread(this::runWriter, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // 남은 이벤트를 모두 기록하고 force 한 뒤 종료
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 이벤트를 버퍼에 넣는다 (요청 스레드에서 호출, 파일 I/O 없음)
+     * 요청자는 현재 인증된 사용자 이메일이다.
+     */
+    public void record(String action, Integer userId, String detail) {
+        if (buffer == null) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(Instant.now(), action, userId, currentActor(), detail);
+        if (!buffer.offer(event)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * 기록된 이벤트 조회 (userId, 시간 범위는 null 이면 제한 없음, 오래된 순서로 최대 limit 개)
+     * 시간 범위가 겹치는 세그먼트만 읽는다. 아직 버퍼에 있는 이벤트는 포함되지 않는다.
+     */
+    public List<AuditEvent> query(Integer userId, Instant from, Instant to, int limit) throws IOException {
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        List<AuditEvent> events = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (events.size() >= limit) {
+                break;
+            }
+            if (segment.committed == 0 || segment.lastTimestamp < fromMillis || segment.firstTimestamp > toMillis) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.committed);
+                while (data.remaining() > 4 && events.size() < limit) {
+                    AuditEvent event = readRecord(data);
+                    if (event == null) {
+                        break;
+                    }
+                    long timestamp = event.getTimestamp().toEpochMilli();
+                    if (timestamp >= fromMillis && timestamp <= toMillis
+                            && (userId == null || userId.equals(event.getUserId()))) {
+                        events.add(event);
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                // 조회 중에 보관 기간이 지나 지워진 세그먼트
+            }
+        }
+        return events;
+    }
+
+    private void runWriter() {
+        long fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        long nextForce = System.nanoTime() + fsyncIntervalNanos;
+        boolean dirty = false;
+        while (true) {
+            boolean stopping = !running;
+            int written = 0;
+            try {
+                written = writeBatch();
+                if (written > 0) {
+                    dirty = true;
+                }
+                if (dirty && (stopping || System.nanoTime() >= nextForce)) {
+                    currentMapping.force();
+                    dirty = false;
+                    nextForce = System.nanoTime() + fsyncIntervalNanos;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to write audit log events", e);
+            }
+            if (stopping && written == 0) {
+                break;   // 종료 요청 후 버퍼를 모두 비움
+            }
+            if (written == 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(idleParkMicros));
+            }
+        }
+        try {
+            currentChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit log segment {}", current.path, e);
+        }
+    }
+
+    // 버퍼에서 최대 batchSize 개를 꺼내 현재 세그먼트에 이어 쓴다
+    private int writeBatch() throws IOException {
+        int written = 0;
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        AuditEvent event;
+        while (written < batchSize && (event = buffer.poll()) != null) {
+            encode(event);
+            if (currentMapping.remaining() < scratch.remaining() + 8) {   // 길이 + CRC32C + 내용
+                publishRange(first, last);
+                first = Long.MAX_VALUE;
+                last = Long.MIN_VALUE;
+                rollSegment();
+            }
+            int start = currentMapping.position();
+            currentMapping.position(start + 4);
+            currentMapping.putInt(scratchChecksum);
+            currentMapping.put(scratch);
+            currentMapping.putInt(start, currentMapping.position() - start - 4);   // 길이는 마지막에
+            long timestamp = event.getTimestamp().toEpochMilli();
+            first = Math.min(first, timestamp);
+            last = Math.max(last, timestamp);
+            written++;
+        }
+        if (written > 0) {
+            publishRange(first, last);
+            writtenCounter.increment(written);
+        }
+        return written;
+    }
+
+    // 조회 스레드가 볼 수 있도록 현재 세그먼트의 시간 범위와 기록된 위치를 갱신
+    private void publishRange(long first, long last) {
+        if (first <= last) {
+            current.firstTimestamp = Math.min(current.firstTimestamp, first);
+            current.lastTimestamp = Math.max(current.lastTimestamp, last);
+        }
+        current.committed = currentMapping.position();
+    }
+
+    private void encode(AuditEvent event) {
+        scratch.clear();
+        scratch.putLong(event.getTimestamp().toEpochMilli());
+        scratch.putInt(event.getUserId() != null ? event.getUserId() : NO_USER_ID);
+        putString(event.getAction());
+        putString(event.getActor());
+        putString(event.getDetail());
+        scratch.flip();
+        checksum.reset();
+        checksum.update(scratch.duplicate());
+        scratchChecksum = (int) checksum.getValue();
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            scratch.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = (value.length() > MAX_FIELD_CHARS ? value.substring(0, MAX_FIELD_CHARS) : value)
+                .getBytes(StandardCharsets.UTF_8);
+        scratch.putShort((short) bytes.length);
+        scratch.put(bytes);
+    }
+
+    // 기록 하나를 읽는다. 세그먼트의 끝(길이 0)이거나 잘린 기록, CRC32C 가 맞지 않는 기록이면 null
+    private static AuditEvent readRecord(ByteBuffer data) {
+        int length = data.getInt();
+        if (length <= 4 || length > data.remaining()) {
+            return null;
+        }
+        int end = data.position() + length;
+        int expected = data.getInt();
+        CRC32C crc = new CRC32C();
+        crc.update(data.slice(data.position(), end - data.position()));
+        if ((int) crc.getValue() != expected) {
+            return null;
+        }
+        long timestamp = data.getLong();
+        int userId = data.getInt();
+        String action = getString(data);
+        String actor = getString(data);
+        String detail = getString(data);
+        data.position(end);
+        return new AuditEvent(Instant.ofEpochMilli(timestamp), action, userId == NO_USER_ID ? null : userId, actor, detail);
+    }
+
+    private static String getString(ByteBuffer data) {
+        short length = data.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 시작 시 기존 세그먼트를 읽어 시간 범위와 기록된 끝 위치를 복구
+    private void recoverSegments(Path dir) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(dir)) {
+            paths = files.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches()).sorted().toList();
+        }
+        for (Path path : paths) {
+            Segment segment = new Segment(path, segmentIndex(path));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (data.remaining() > 4) {
+                    int start = data.position();
+                    AuditEvent event;
+                    try {
+                        event = readRecord(data);
+                    } catch (RuntimeException e) {
+                        event = null;   // CRC 가 우연히 맞았지만 형식이 올바르지 않은 기록
+                    }
+                    if (event == null) {
+                        data.position(start);
+                        break;
+                    }
+                    long timestamp = event.getTimestamp().toEpochMilli();
+                    segment.firstTimestamp = Math.min(segment.firstTimestamp, timestamp);
+                    segment.lastTimestamp = Math.max(segment.lastTimestamp, timestamp);
+                }
+                segment.committed = data.position();
+            }
+            segments.add(segment);
+        }
+    }
+
+    // 마지막 세그먼트에 이어 쓰거나, 없으면 새 세그먼트를 만든다
+    private void openForAppend(Path dir) throws IOException {
+        if (segments.isEmpty()) {
+            createSegment(dir, 0);
+            return;
+        }
+        Segment last = segments.get(segments.size() - 1);
+        this.current = last;
+        this.currentChannel = FileChannel.open(last.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.currentMapping = currentChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSizeBytes, currentChannel.size()));
+        this.currentMapping.position(last.committed);
+        // 비정상 종료로 잘린 기록이 남아 있으면 그 위치부터 덮어쓴다
+        if (currentMapping.remaining() >= 4) {
+            currentMapping.putInt(last.committed, 0);
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        currentMapping.force();
+        currentChannel.close();
+        createSegment(current.path.getParent(), current.index + 1);
+        deleteExpiredSegments();
+    }
+
+    // 마지막 기록이 보관 기간보다 오래된 세그먼트를 지운다 (쓰기 중인 세그먼트는 제외)
+    private void deleteExpiredSegments() throws IOException {
+        if (retentionDays <= 0) {
+            return;
+        }
+        long cutoff = clock.getAsLong() - TimeUnit.DAYS.toMillis(retentionDays);
+        for (Segment segment : segments) {
+            if (segment != current && segment.lastTimestamp < cutoff) {
+                segments.remove(segment);   // 조회 목록에서 먼저 빼고 파일을 지운다
+                Files.deleteIfExists(segment.path);
+                log.info("Deleted expired audit log segment {}", segment.path);
+            }
+        }
+    }
+
+    private void createSegment(Path dir, long index) throws IOException {
+        Segment segment = new Segment(dir.resolve(String.format("audit-%020d.log", index)), index);
+        this.currentChannel = FileChannel.open(segment.path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.currentMapping = currentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes);
+        this.current = segment;
+        segments.add(segment);
+    }
+
+    private static long segmentIndex(Path path) {
+        Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    // 세그먼트 파일과 조회에 필요한 정보 (쓰기 스레드가 갱신하고 조회 스레드가 읽는다)
+    private static final class Segment {
+        private final Path path;
+        private final long index;
+        private volatile long firstTimestamp = Long.MAX_VALUE;
+        private volatile long lastTimestamp = Long.MIN_VALUE;
+        private volatile int committed;   // 끝까지 기록된 위치 (조회는 여기까지만 읽는다)
+
+        private Segment(Path path, long index) {
+            this.path = path;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package jin.usersmanagementsystem.service;
+
+import jakarta.annotation.PostConstruct;
+import jin.usersmanagementsystem.entity.OurUsers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+@Component
+public class AuthRateLimiter {
+
+    /**
+     * /auth 요청의 클라이언트 IP / 이메일별 요청 한도 (토큰 버킷)
+     * 토큰 버킷을 GCRA 로 구현하여 키마다 값 하나(다음 요청이 도착해야 하는 이론상 시각)만 저장하고 CAS 로 갱신한다.
+     * 키는 해시로 고정 크기 배열의 칸(stripe)에 나누어 담으므로 공격자가 이메일을 계속 바꿔도 메모리가 늘어나지 않는다.
+     * (서로 다른 키가 같은 칸을 쓰면 한도를 나누어 쓰게 되지만, 칸 수가 충분히 크면 드물다)
+     * 로그인은 실패한 시도만 두 가지 한도에서 차감한다.
+     * - (이메일, 클라이언트 IP) 별 한도: 한 곳에서 반복되는 추측을 빨리 막는다. 다른 곳에서 틀린 비밀번호를 반복해도 계정 주인은 막히지 않는다.
+     * - 이메일별 한도 (더 크게): IP 를 바꿔 가며 한 계정을 노리는 분산 공격을 막는다.
+     * 클라이언트 IP 는 request.getRemoteAddr() 이므로, 로드 밸런서 / 프록시 뒤에서는 server.forward-headers-strategy 를 설정해야 한다.
+     * (설정하지 않으면 모든 클라이언트가 프록시 IP 하나의 한도를 나누어 쓴다)
+     */
+    @Value("${auth.rate-limit.stripes:65536}")
+    private int stripes;
+
+    @Value("${auth.rate-limit.ip.per-minute:600}")
+    private long ipPerMinute;
+
+    @Value("${auth.rate-limit.ip.burst:20}")
+    private long ipBurst;
+
+    @Value("${auth.rate-limit.email-ip.per-minute:6}")
+    private long emailIpPerMinute;
+
+    @Value("${auth.rate-limit.email-ip.burst:5}")
+    private long emailIpBurst;
+
+    @Value("${auth.rate-limit.email.per-minute:30}")
+    private long emailPerMinute;
+
+    @Value("${auth.rate-limit.email.burst:50}")
+    private long emailBurst;
+
+    private TokenBuckets ipBuckets;
+    private TokenBuckets emailIpBuckets;   // (이메일, IP)
+    private TokenBuckets emailBuckets;     // 이메일 (로그인 실패만)
+
+    @PostConstruct
+    void init() {
+        ipBuckets = new TokenBuckets(stripes, ipPerMinute, ipBurst, System::nanoTime);
+        emailIpBuckets = new TokenBuckets(stripes, emailIpPerMinute, emailIpBurst, System::nanoTime);
+        emailBuckets = new TokenBuckets(stripes, emailPerMinute, emailBurst, System::nanoTime);
+    }
+
+    /**
+     * 요청을 허용하면 0, 한도를 넘었으면 다시 시도할 수 있을 때까지 남은 시간(나노초)
+     */
+    public long tryAcquireIp(String clientIp) {
+        return ipBuckets.tryAcquire(clientIp);
+    }
+
+    // 회원가입: (이메일, IP) 별 요청 한도 확인 후 차감 (비밀번호 해싱 / DB 조회 전에 호출), 한도를 넘으면 RateLimitExceededException
+    public void checkEmail(String email, String clientIp) {
+        if (email == null) {
+            return;
+        }
+        throwIfWaiting(emailIpBuckets.tryAcquire(emailIpKey(email, clientIp)));
+    }
+
+    // 로그인: 차감하지 않고 (이메일, IP) / 이메일의 실패 한도만 확인 (비밀번호 해싱 전에 호출), 한도를 넘으면 RateLimitExceededException
+    public void checkLogin(String email, String clientIp) {
+        if (email == null) {
+            return;
+        }
+        throwIfWaiting(Math.max(emailIpBuckets.waitNanos(emailIpKey(email, clientIp)), emailBuckets.waitNanos(OurUsers.normalizeEmail(email))));
+    }
+
+    // 로그인 실패 (비밀번호가 틀린 경우) 에만 두 한도에서 차감
+    public void recordLoginFailure(String email, String clientIp) {
+        if (email != null) {
+            emailIpBuckets.tryAcquire(emailIpKey(email, clientIp));
+            emailBuckets.tryAcquire(OurUsers.normalizeEmail(email));
+        }
+    }
+
+    private static String emailIpKey(String email, String clientIp) {
+        return OurUsers.normalizeEmail(email) + '|' + clientIp;
+    }
+
+    private static void throwIfWaiting(long waitNanos) {
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException("Too many requests for this account", toRetryAfterSeconds(waitNanos));
+        }
+    }
+
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));   // 올림
+    }
+
+    static final class TokenBuckets {
+
+        private final AtomicLongArray theoreticalArrivalTimes;   // 칸별 다음 요청 허용 시각 (clock 기준)
+        private final long emissionIntervalNanos;                // 토큰 하나가 채워지는 시간
+        private final long burstToleranceNanos;                  // 한 번에 허용하는 요청 수만큼의 여유
+        private final LongSupplier clock;                        // 나노초 시계 (System.nanoTime, 테스트에서는 고정 시계)
+
+        TokenBuckets(int stripes, long perMinute, long burst, LongSupplier clock) {
+            this.theoreticalArrivalTimes = new AtomicLongArray(stripes);
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burstToleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+            this.clock = clock;
+            long now = clock.getAsLong();
+            for (int i = 0; i < stripes; i++) {
+                theoreticalArrivalTimes.set(i, now - burstToleranceNanos);   // 모든 칸을 가득 찬 버킷으로 시작
+            }
+        }
+
+        // 요청 하나를 허용하면 0, 아니면 다시 시도할 수 있을 때까지 남은 시간 (상태를 바꾸지 않는다)
+        long waitNanos(String key) {
+            long now = clock.getAsLong();
+            long wait = Math.max(theoreticalArrivalTimes.get(stripe(key)), now) + emissionIntervalNanos - now - burstToleranceNanos;
+            return Math.max(0, wait);
+        }
+
+        long tryAcquire(String key) {
+            int stripe = stripe(key);
+            while (true) {
+                long now = clock.getAsLong();
+                long tat = theoreticalArrivalTimes.get(stripe);
+                long newTat = Math.max(tat, now) + emissionIntervalNanos;
+                long wait = newTat - now - burstToleranceNanos;
+                if (wait > 0) {
+                    return wait;   // 버킷이 비어 있음 (거부해도 상태를 바꾸지 않는다)
+                }
+                if (theoreticalArrivalTimes.compareAndSet(stripe, tat, newTat)) {
+                    return 0;
+                }
+            }
+        }
+
+        private int stripe(String key) {
+            return Math.floorMod(spread(key.hashCode()), theoreticalArrivalTimes.length());
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
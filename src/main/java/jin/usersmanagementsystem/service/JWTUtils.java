@@ -1,7 +1,11 @@
 package jin.usersmanagementsystem.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import jin.usersmanagementsystem.entity.OurUsers;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -11,6 +15,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -23,8 +29,21 @@ public class JWTUtils {
      * 해당 사용자가 해당 항목에 엑세스 할 수 있도록 허용하는 것이 기본적인 서비스의 전부
      */
 
+    public static final String CLAIM_USER_ID = "uid";        // 사용자 ID 클레임
+    public static final String CLAIM_ROLE = "role";          // 역할 클레임
+    public static final String CLAIM_TOKEN_VERSION = "ver";  // 토큰 버전 클레임 (발급 시점의 ourusers.version, TokenVersionRegistry 로 무효화 여부를 확인)
+    public static final String CLAIM_TOKEN_TYPE = "typ";     // 토큰 종류 클레임 (access / refresh)
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
     private SecretKey Key; // 개인이 가지고 있을 JWT 서명 및 확인에 사용되는 키
     private static final long EXPIRATION_TIME = 86400000;  // 만료시간은 = 토큰 비밀 키의 지속 시간  (지금은 24시간을 원한다. // 24시간 (86400000L)) // 토큰 만료 시간을 정의
+    static final long REFRESH_EXPIRATION_TIME = 7 * 86400000L;  // refreshToken 만료 시간 (7일), 발급하는 토큰 중 가장 길다
+    private static final long VERIFIED_TOKEN_CACHE_MAX_SIZE = 10_000;  // 검증된 토큰 캐시에 보관할 최대 토큰 수
+    private static final long VERIFIED_TOKEN_CACHE_TTL_MINUTES = 5;    // 검증된 토큰을 캐시에 보관하는 시간 (토큰 만료 시간과 별개로 다시 검증하는 주기)
+
+    private final JwtParser jwtParser;                      // 스레드 안전한 파서를 한 번만 만들어 모든 요청에서 재사용
+    private final Cache<String, Claims> verifiedTokenCache; // 서명 검증이 끝난 토큰 -> 클레임 (같은 토큰이 반복해서 들어오면 HMAC 검증과 JSON 파싱을 생략)
 
     // 생성자에서 Key 를 생성할 예정 -> secreteString 을 가져온다.
     // 생성자는 토큰 생성 및 확인에 사용되는 비밀 키를 초기화
@@ -32,14 +51,31 @@ public class JWTUtils {
         String secreteString = "843567893696976453275974432697R634976R738467TR678T34865R6834R8763T478378637664538745673865783678548735687R3";
         byte[] keyBytes = Base64.getDecoder().decode(secreteString.getBytes(StandardCharsets.UTF_8)); // base64로 인코딩된 문자열을 바이트로 디코딩해서 utf8 용 표준 문자
         this.Key = new SecretKeySpec(keyBytes, "HmacSHA256"); // 새 비밀 키와 같다,  HMAC SHA-256 알고리즘을 지정하여 디코딩된 바이트에서 SecretKey를 생성
+        this.jwtParser = Jwts.parser().verifyWith(Key).build();
+        this.verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(VERIFIED_TOKEN_CACHE_MAX_SIZE)                             // 캐시 크기를 제한하여 메모리 사용량을 고정
+                .expireAfterWrite(VERIFIED_TOKEN_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+                .build();
     }
 
     /**
      * 토큰을 생성
+     * OurUsers 인 경우 사용자 ID, 역할, 토큰 버전을 클레임에 담아 DB 조회 없이 인증할 수 있도록 한다. (stateless 인증 모드)
      */
     public String generateToken(UserDetails userDetails) {
 
+        HashMap<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof OurUsers user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole());
+            claims.put(CLAIM_TOKEN_VERSION, tokenVersion(user));
+        }
+
+        claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_ACCESS);
+
         return Jwts.builder()  // JWT 빌드를 시작
+                .claims(claims)  // 사용자 ID / 역할 / 토큰 버전 클레임
+                .id(UUID.randomUUID().toString())    // 토큰 ID (jti), 로그아웃 시 TokenDenylist 에 등록
                 .subject(userDetails.getUsername())  // 토큰의 제목(일반적으로 사용자 이름)을 설정
                 .issuedAt(new Date(System.currentTimeMillis()))   //  토큰 발급 시간을 설정
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))  // 토큰의 만료 시간을 발급 시간으로부터 24시간으로 설정
@@ -47,17 +83,29 @@ public class JWTUtils {
                 .compact(); //  JWT 생성 프로세스를 마무리하고 토큰을 문자열로 반환
     }
 
+    // 토큰 버전은 DB 의 사용자 버전 (수정할 때마다 같은 트랜잭션에서 1 증가) 이므로 어느 인스턴스에서 발급해도 같은 값이다
+    private static int tokenVersion(OurUsers user) {
+        return user.getVersion() == null ? 0 : user.getVersion();
+    }
+
     /**
      * refreshToken 생성
+     * typ=refresh 클레임으로 access 토큰과 구분하고 (인증 필터는 refreshToken 으로 인증하지 않는다), jti 로 개별 폐기할 수 있다.
      */
     public String generateRefreshToken(HashMap<String, Object> claims, UserDetails userDetails) {
 
         // 사용자 세부 정보를 claims 화
+        if (userDetails instanceof OurUsers user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_TOKEN_VERSION, tokenVersion(user));
+        }
+        claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH);
         return Jwts.builder()
                 .claims(claims)  // 토큰에 맞춤 클레임(추가 데이터)을 포함
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .expiration(new Date(System.currentTimeMillis() + REFRESH_EXPIRATION_TIME))
                 .signWith(Key)
                 .compact(); // 생성된 후 compact
     }
@@ -71,9 +119,27 @@ public class JWTUtils {
         return extractClaims(token, Claims::getSubject);
     }
 
+    /**
+     * 토큰을 한 번만 검증하고 클레임 전체를 반환
+     * 최근에 검증된 토큰이면 캐시된 클레임을 그대로 사용하고, 캐시에 있더라도 만료된 토큰은 버린 뒤 다시 검증 (만료 예외가 그대로 발생)
+     * 서명이 올바르지 않거나 만료된 토큰은 JwtException 이 발생하며 캐시에 저장되지 않는다.
+     */
+    public Claims extractAllClaims(String token) {
+        Claims cached = verifiedTokenCache.getIfPresent(token);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verifiedTokenCache.invalidate(token);
+        }
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        verifiedTokenCache.put(token, claims);
+        return claims;
+    }
+
     // JWT에서 특정 클레임을 추출하는 일반적인 방법
     private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(Jwts.parser().verifyWith(Key).build().parseSignedClaims(token).getPayload());
+        return claimsTFunction.apply(extractAllClaims(token));
     }
 
     /**
@@ -82,8 +148,13 @@ public class JWTUtils {
      */
     // 토큰이 유효한지 또는 토큰이 만료되므로 빨리 수행합니다.
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+
+    // 이미 검증된 클레임으로 토큰을 확인 (필터에서 토큰을 다시 파싱하지 않도록)
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername()) && !isExpired(claims));
     }
 
     /**
@@ -92,6 +163,20 @@ public class JWTUtils {
      * 토큰에서 만료 시간을 추출
      */
     public boolean isTokenExpired(String token) {
-        return extractClaims(token, Claims::getExpiration).before(new Date()); // 현재 날짜와 비교하여 토큰이 만료되었는지 확인
+        return isExpired(extractAllClaims(token));
+    }
+
+    // 응답에 담는 access 토큰 만료 시간 (예: "24Hrs"), EXPIRATION_TIME 이 바뀌면 함께 바뀐다
+    public String accessTokenExpirationTime() {
+        return TimeUnit.MILLISECONDS.toHours(EXPIRATION_TIME) + "Hrs";
+    }
+
+    // refreshToken 인지 확인 (typ 클레임이 없는 이전 형식의 토큰은 access 토큰으로 간주)
+    public boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date()); // 현재 날짜와 비교하여 토큰이 만료되었는지 확인
     }
 }
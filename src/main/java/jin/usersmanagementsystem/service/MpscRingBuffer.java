@@ -0,0 +1,74 @@
+package jin.usersmanagementsystem.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 잠금 없는 다중 생산자 / 단일 소비자 링 버퍼 (크기는 2 의 거듭제곱)
+ * 생산자는 쓰기 위치를 CAS 로 하나 얻어 값을 넣고, 칸의 시퀀스를 갱신해 소비자에게 공개한다.
+ * 가득 차면 기다리지 않고 false 를 반환하므로 요청 스레드가 소비자 때문에 멈추지 않는다.
+ * poll 은 소비자 스레드 하나에서만 호출해야 한다.
+ */
+final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;    // 칸별 시퀀스 (== 위치 이면 비어 있음, == 위치 + 1 이면 값이 공개됨)
+    private final AtomicLong tail = new AtomicLong();   // 다음 쓰기 위치 (생산자들이 공유)
+    private long head;                          // 다음 읽기 위치 (소비자 전용)
+
+    MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // 값을 넣는다. 버퍼가 가득 차 있으면 false
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.lazySet(index, position + 1);   // 값을 쓴 뒤에 공개
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;   // 소비자가 아직 읽지 않은 칸 (가득 참)
+            } else {
+                position = tail.get();   // 다른 생산자가 먼저 가져간 위치
+            }
+        }
+    }
+
+    // 공개된 값을 하나 꺼낸다. 없으면 null (소비자 스레드 전용)
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.lazySet(index, head + elements.length);   // 한 바퀴 뒤의 생산자에게 칸을 돌려준다
+        head++;
+        return element;
+    }
+
+    // 대략적인 대기 중인 값 수 (지표용)
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+}
@@ -1,22 +1,138 @@
 package jin.usersmanagementsystem.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jin.usersmanagementsystem.config.ReadYourWritesContext;
+import jin.usersmanagementsystem.config.RequestPhaseMetrics;
+import jin.usersmanagementsystem.entity.OurUsers;
 import jin.usersmanagementsystem.repository.UsersRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Service
-public class OurUserDetailsService implements UserDetailsService {
+public class OurUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     // 사용자 정보를 데이터베이스에서 가져오기 위한 레포지토리를 참조
     @Autowired
     private UsersRepo usersRepo;
 
+    @Autowired
+    private RequestPhaseMetrics requestPhaseMetrics;   // 사용자 조회 시간 측정
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${users.principal-cache.max-size:10000}")
+    private long principalCacheMaxSize;     // 캐시에 보관할 최대 사용자 수
+
+    @Value("${users.principal-cache.ttl:PT5M}")
+    private Duration principalCacheTtl;     // 캐시된 사용자 정보를 다시 DB 에서 읽어오기까지의 시간
+
+    private AsyncCache<String, OurUsers> principalCache; // 정규화된 이메일 -> 사용자 정보 (인증된 요청마다 DB 를 조회하지 않도록)
+    private final AtomicLong invalidationCount = new AtomicLong(); // 수정 / 삭제로 인해 직접 제거된 횟수
+
+    @PostConstruct
+    void initPrincipalCache() {
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(principalCacheMaxSize)
+                .expireAfterWrite(principalCacheTtl)
+                .recordStats()   // hit / miss / eviction 카운터 수집
+                .buildAsync();   // 조회 중인 항목도 future 로 캐시에 올라가므로 invalidate 가 진행 중인 조회 결과까지 버린다
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache.synchronous(), "principalCache"); // /admin/metrics?prefix=cache 로도 조회 가능
+    }
+
     // 사용자 이름(여기서는 이메일)을 기반으로 사용자 정보를 로드
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException { // UsernameNotFoundException 해당 사용자 이름을 가진 사용자가 없을 경우 예외를 던집니다.
-        return usersRepo.findByEmail(username).orElseThrow(); // 주어진 이메일로 사용자를 찾는다. // 사용자가 존재하지 않으면 UsernameNotFoundException 예외를 던집니다.
+        return requestPhaseMetrics.record(RequestPhaseMetrics.USER_LOOKUP, () -> loadUser(username));
+    }
+
+    private OurUsers loadUser(String username) {
+        // Cache.get(key, loader) 는 DB 조회 동안 ConcurrentHashMap 의 synchronized 잠금을 잡고 있어 가상 스레드가 고정(pinning)되므로,
+        // 빈 future 를 먼저 캐시에 올리고 잠금 밖에서 조회한다. 조회 중에 evict 되면 future 가 캐시에서 빠지므로 오래된 값이 다시 저장되지 않는다.
+        String emailNormalized = OurUsers.normalizeEmail(username);
+        CompletableFuture<OurUsers> cached = principalCache.getIfPresent(emailNormalized);
+        if (cached == null) {
+            CompletableFuture<OurUsers> loading = new CompletableFuture<>();
+            cached = principalCache.asMap().putIfAbsent(emailNormalized, loading);
+            if (cached == null) {
+                try {
+                    OurUsers user = findUser(emailNormalized, username);
+                    loading.complete(user);
+                    return user;
+                } catch (RuntimeException e) {
+                    principalCache.asMap().remove(emailNormalized, loading);   // 없는 사용자는 캐시하지 않는다
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return cached.join();   // 같은 사용자를 조회 중인 요청이 있으면 그 결과를 기다린다 (가상 스레드는 park)
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // 조회 결과는 TTL 동안 캐시되므로, 복제 지연으로 수정 / 삭제 이전의 사용자 정보가 캐시되지 않도록 항상 주 DB 에서 읽는다 (라우팅을 사용하지 않으면 영향 없음)
+    private OurUsers findUser(String emailNormalized, String username) {
+        return ReadYourWritesContext.onPrimary(() -> usersRepo.findByEmailNormalized(emailNormalized))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username)); // 주어진 이메일로 사용자를 찾는다. // 사용자가 존재하지 않으면 UsernameNotFoundException 예외를 던집니다.
+    }
+
+    /**
+     * 비밀번호 해시 갱신
+     * 로그인에 성공했는데 저장된 해시가 현재 해싱 정책과 다르면 DaoAuthenticationProvider 가 새 해시로 이 메서드를 호출한다.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        usersRepo.updatePasswordByEmailNormalized(OurUsers.normalizeEmail(user.getUsername()), newPassword);  // UPDATE 한 번으로 해시만 변경
+        evict(user.getUsername());
+        if (user instanceof OurUsers ourUser) {
+            ourUser.setPassword(newPassword);
+        }
+        return user;
+    }
+
+    /**
+     * 캐시된 사용자 정보 제거
+     * 사용자 정보(역할, 비밀번호 등)가 바뀌거나 삭제되었을 때 호출하여 다음 요청부터 바로 반영되도록 한다.
+     * 수정 / 삭제하는 쪽은 같은 트랜잭션에서 이메일을 조회해 두었다가 이 메서드로 키 하나만 제거한다. (캐시 전체를 훑지 않는다)
+     */
+    public void evict(String email) {
+        if (email != null) {
+            principalCache.synchronous().invalidate(OurUsers.normalizeEmail(email));
+            invalidationCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 캐시 통계 조회 (hit / miss / eviction)
+     */
+    public Map<String, Long> getPrincipalCacheStats() {
+        CacheStats stats = principalCache.synchronous().stats();
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("size", principalCache.synchronous().estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("invalidationCount", invalidationCount.get());
+        return result;
     }
 }
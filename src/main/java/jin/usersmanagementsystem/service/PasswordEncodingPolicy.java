@@ -0,0 +1,117 @@
+package jin.usersmanagementsystem.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class PasswordEncodingPolicy {
+
+    /**
+     * 비밀번호 해싱 정책
+     * - BCrypt cost 를 설정값으로 고정하거나, 시작할 때 직접 해싱해 보고 목표 시간(target-latency-ms) 안에 끝나는 가장 높은 cost 를 선택
+     * - 저장 형식은 {id} 접두사가 붙는 DelegatingPasswordEncoder 를 사용하여 여러 해시 형식을 함께 지원 (접두사가 없는 기존 해시는 BCrypt 로 비교)
+     * - 저장된 해시가 목표 cost 보다 약하거나 다른 형식이면 로그인 성공 시 다시 해싱 (needsRehash)
+     *   cost 를 설정값으로 고정했으면 목표보다 비싼 해시도 다시 해싱하여 운영자가 cost 를 낮출 수 있다.
+     *   자동 조정이면 노드마다 측정한 cost 가 다를 수 있으므로 더 높은 cost 의 해시를 낮추지 않는다. (노드를 오갈 때마다 다시 해싱되지 않도록)
+     */
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncodingPolicy.class);
+
+    public static final String BCRYPT_ID = "bcrypt";
+    private static final String BCRYPT_PREFIX = "{" + BCRYPT_ID + "}";
+    private static final int TUNING_SAMPLES = 3;   // cost 마다 측정 횟수 (중앙값 사용)
+
+    @Value("${security.password.bcrypt.cost:0}")
+    private int fixedCost;              // 0 보다 크면 자동 조정 없이 이 cost 를 사용
+
+    @Value("${security.password.bcrypt.target-latency-ms:250}")
+    private long targetLatencyMillis;   // 해싱 한 번에 허용할 시간
+
+    @Value("${security.password.bcrypt.min-cost:10}")
+    private int minCost;
+
+    @Value("${security.password.bcrypt.max-cost:14}")
+    private int maxCost;
+
+    private int targetCost;
+    private PasswordEncoder passwordEncoder;
+
+    @PostConstruct
+    void init() {
+        this.targetCost = fixedCost > 0 ? fixedCost : tuneCost();
+        log.info("BCrypt cost set to {}", targetCost);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT_ID, new BCryptPasswordEncoder(targetCost));
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(BCRYPT_ID, encoders);
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder()); // 접두사가 없는 기존 BCrypt 해시
+        this.passwordEncoder = delegatingPasswordEncoder;
+    }
+
+    // min-cost 부터 cost 를 하나씩 올려 가며 해싱해 보고, 목표 시간 안에 끝난 가장 높은 cost 를 선택 (cost 가 1 오르면 시간은 약 두 배)
+    // 한 번만 재면 GC / 다른 작업 때문에 튀는 값으로 cost 가 바뀌므로 TUNING_SAMPLES 번 잰 중앙값을 사용
+    private int tuneCost() {
+        new BCryptPasswordEncoder(minCost).encode("warm-up");   // JIT 워밍업
+        int selected = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            if (medianHashMillis(cost) > targetLatencyMillis) {
+                break;
+            }
+            selected = cost;
+        }
+        return selected;
+    }
+
+    private static long medianHashMillis(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long[] samples = new long[TUNING_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode("benchmark-password");
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    public PasswordEncoder getPasswordEncoder() {
+        return passwordEncoder;
+    }
+
+    public int getTargetCost() {
+        return targetCost;
+    }
+
+    /**
+     * 저장된 해시를 다시 만들어야 하는지 확인
+     * BCrypt 가 아닌 형식, 접두사가 없는 기존 형식, 목표보다 낮은 cost 인 경우 true
+     * 목표보다 높은 cost 는 cost 를 설정값으로 고정한 경우에만 true (자동 조정이면 그대로 둔다)
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith(BCRYPT_PREFIX)) {
+            return true;
+        }
+        int cost = bcryptCost(encodedPassword.substring(BCRYPT_PREFIX.length()));   // 형식이 깨진 해시는 -1
+        return cost < targetCost || (fixedCost > 0 && cost > targetCost);
+    }
+
+    // BCrypt 해시 형식: $2a$10$... -> 10
+    private int bcryptCost(String bcryptHash) {
+        try {
+            return Integer.parseInt(bcryptHash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package jin.usersmanagementsystem.service;
+
+/**
+ * 비밀번호 해싱 대기열이 가득 차서 요청을 처리할 수 없을 때 발생 (503 Service Unavailable 로 응답)
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
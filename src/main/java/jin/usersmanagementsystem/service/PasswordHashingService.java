@@ -0,0 +1,132 @@
+package jin.usersmanagementsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jin.usersmanagementsystem.config.RequestPhaseMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Service
+public class PasswordHashingService {
+
+    /**
+     * 비밀번호 해싱 전용 스레드 풀
+     * BCrypt 는 CPU 를 많이 사용하므로 요청 스레드(Tomcat)가 아닌 CPU 코어 수 만큼의 전용 스레드에서 해싱한다.
+     * 대기열 크기를 제한하여, 로그인이 몰려 대기열이 가득 차면 요청 스레드를 붙잡아 두지 않고 바로 PasswordHashingRejectedException (503) 으로 실패시킨다.
+     * 회원가입, 로그인(DaoAuthenticationProvider), 사용자 수정의 해싱은 모두 SecurityConfig 의 PasswordEncoder 를 통해 이 스레드 풀에서 실행된다.
+     */
+    @Autowired
+    private PasswordEncodingPolicy passwordEncodingPolicy;   // 해싱 형식과 BCrypt cost 정책
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RequestPhaseMetrics requestPhaseMetrics;   // 요청 스레드에서 본 해싱 시간 (대기열 대기 포함)
+
+    @Value("${security.password.hashing.threads:0}")
+    private int threads;         // 해싱 스레드 수 (0 이면 CPU 코어 수)
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;   // 대기열 크기 (가득 차면 PasswordHashingRejectedException)
+
+    @Value("${security.password.hashing.retry-after-seconds:1}")
+    private int retryAfterSeconds;   // 503 응답의 Retry-After 헤더 값
+
+    private PasswordEncoder delegate; // 실제 해싱을 수행하는 인코더 (PasswordEncodingPolicy)
+    private ThreadPoolExecutor executor;
+    private Timer encodeTimer;       // 해싱 시간
+    private Timer matchesTimer;      // 비밀번호 비교 시간
+    private Counter rejectedCounter; // 대기열이 가득 차서 거절된 횟수
+
+    @PostConstruct
+    void initExecutor() {
+        this.delegate = passwordEncodingPolicy.getPasswordEncoder();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing").tag("operation", "matches").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    // 비밀번호를 해싱 스레드 풀에서 암호화하고 결과를 기다린다.
+    public String encode(CharSequence rawPassword) {
+        return requestPhaseMetrics.record(RequestPhaseMetrics.PASSWORD_ENCODE, () -> await(encodeAsync(rawPassword)));
+    }
+
+    // 비밀번호 비교도 해싱과 같은 비용이므로 같은 스레드 풀에서 실행
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return requestPhaseMetrics.record(RequestPhaseMetrics.PASSWORD_MATCH,
+                () -> await(submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)))));
+    }
+
+    // 비밀번호를 해싱 스레드 풀에서 비동기로 암호화 (대량 회원가입에서 병렬로 사용)
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    // 저장된 해시가 현재 정책(형식, cost)과 다르면 true -> 로그인 성공 시 다시 해싱
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncodingPolicy.needsRehash(encodedPassword);
+    }
+
+    // 해싱 스레드 수 (한 번에 제출할 작업 크기를 정할 때 사용)
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
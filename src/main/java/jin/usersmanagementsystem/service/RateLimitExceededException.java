@@ -0,0 +1,18 @@
+package jin.usersmanagementsystem.service;
+
+/**
+ * 클라이언트 IP / 이메일별 요청 한도를 넘었을 때 발생 (429 Too Many Requests 로 응답)
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;   // 다음 요청이 허용될 때까지 남은 시간
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
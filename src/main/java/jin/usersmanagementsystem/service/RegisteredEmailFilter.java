@@ -0,0 +1,115 @@
+package jin.usersmanagementsystem.service;
+
+import jin.usersmanagementsystem.entity.OurUsers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class RegisteredEmailFilter {
+
+    /**
+     * 가입된 이메일(정규화된 이메일) 블룸 필터
+     * 회원가입 시 비밀번호를 해싱하기 전에 확인하여, 필터에 없는 이메일(대부분의 신규 가입)은 DB 조회 없이 통과시키고
+     * 필터에 있는 이메일만 유니크 인덱스로 실제 가입 여부를 확인한다.
+     * 가입 / 이메일 변경 시 추가하고, 삭제는 블룸 필터에서 뺄 수 없으므로 삭제 수가 쌓이면 테이블에서 다시 만든다.
+     * 애플리케이션 시작 후 처음 만들어지기 전에는 모든 이메일을 "있을 수 있음"으로 보고 DB 로 확인한다.
+     */
+    private static final Logger log = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${users.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${users.email-filter.min-capacity:100000}")
+    private long minCapacity;
+
+    @Value("${users.email-filter.rebuild-after-deletes:10000}")
+    private long rebuildAfterDeletes;
+
+    private volatile BloomFilter filter;     // null 이면 아직 만들어지지 않음
+    private volatile BloomFilter building;   // 다시 만드는 중인 필터 (만드는 동안 추가된 이메일도 함께 넣는다)
+    private volatile long capacity;          // 현재 필터의 예상 저장 개수
+    private final AtomicLong insertsSinceBuild = new AtomicLong();
+    private final AtomicLong deletesSinceBuild = new AtomicLong();
+
+    // 시작 시 테이블에서 필터 생성 (요청 처리를 막지 않도록 애플리케이션 준비 후 실행)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * false 이면 확실히 가입되지 않은 이메일, true 이면 DB 로 확인해야 한다.
+     */
+    public boolean mightBeRegistered(String email) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(OurUsers.normalizeEmail(email));
+    }
+
+    // 가입 / 이메일 변경 후 호출 (커밋된 이메일)
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        String normalized = OurUsers.normalizeEmail(email);
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.put(normalized);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(normalized);
+        }
+        insertsSinceBuild.incrementAndGet();
+    }
+
+    public void recordDeletes(long count) {
+        deletesSinceBuild.addAndGet(count);
+    }
+
+    // 삭제가 많이 쌓였거나 (오탐 증가) 예상 저장 개수를 넘게 추가되었으면 다시 만든다.
+    @Scheduled(fixedDelayString = "${users.email-filter.check-interval-ms:60000}")
+    public void rebuildIfNeeded() {
+        if (filter != null && (deletesSinceBuild.get() >= rebuildAfterDeletes || insertsSinceBuild.get() >= capacity / 2)) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        try {
+            long rows = jdbcTemplate.queryForObject("select count(*) from ourusers", Long.class);
+            long newCapacity = Math.max(minCapacity, rows * 2);   // 다시 만들 때까지 늘어날 가입자를 고려하여 여유 있게
+            BloomFilter next = new BloomFilter(newCapacity, falsePositiveRate);
+            building = next;
+            insertsSinceBuild.set(0);
+            deletesSinceBuild.set(0);
+            JdbcTemplate scan = new JdbcTemplate(jdbcTemplate.getDataSource());   // 공유 JdbcTemplate 설정을 바꾸지 않도록 따로 만든다
+            scan.setFetchSize(1000);
+            scan.query("select email_normalized from ourusers", resultSet -> {
+                String email = resultSet.getString(1);
+                if (email != null) {
+                    next.put(email);
+                }
+            });
+            capacity = newCapacity;
+            filter = next;
+            log.info("Registered email filter built from {} users in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Failed to build registered email filter, falling back to database checks", e);
+        } finally {
+            building = null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package jin.usersmanagementsystem.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+public class TokenDenylist {
+
+    /**
+     * 로그아웃 등으로 폐기된 토큰(jti) 목록
+     * 토큰의 만료 시간을 기준으로 일정 간격의 버킷에 나누어 저장하고, 만료 시간이 지난 버킷은 통째로 삭제한다.
+     * 만료된 토큰은 서명 검증 단계에서 이미 거부되므로, 목록은 아직 만료되지 않은 폐기 토큰만큼만 메모리를 사용한다.
+     * 조회는 토큰의 만료 시간으로 버킷 하나를 찾고, 블룸 필터에 없으면 (대부분의 요청) 정확한 집합을 보지 않고 바로 반환한다.
+     * 메모리에만 저장되며, 애플리케이션을 시작할 때 UserChangeLog 가 아직 만료되지 않은 폐기 기록에서 다시 채운다.
+     */
+    @Value("${jwt.denylist.bucket-minutes:60}")
+    private long bucketMinutes;             // 버킷 하나가 담당하는 만료 시간 구간
+
+    @Value("${jwt.denylist.expected-per-bucket:10000}")
+    private long expectedPerBucket;         // 버킷별 블룸 필터 크기 (초과해도 정확한 집합으로 확인하므로 오탐률만 올라간다)
+
+    @Value("${jwt.denylist.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final ConcurrentMap<Long, Bucket> buckets = new ConcurrentHashMap<>();   // 버킷 번호(만료 시간 / 구간) -> 버킷
+
+    /**
+     * 토큰을 만료 시간까지 폐기 목록에 추가 (이미 만료된 토큰은 추가하지 않는다)
+     * 이 호출이 처음 추가했을 때만 true 이므로, 동시에 같은 refreshToken 을 사용한 요청 중 하나만 새 토큰을 받는다.
+     */
+    public boolean revoke(String tokenId, Date expiration) {
+        if (tokenId == null || expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return false;
+        }
+        Bucket bucket = buckets.computeIfAbsent(bucketOf(expiration), key -> new Bucket(new BloomFilter(expectedPerBucket, falsePositiveRate)));
+        boolean added = bucket.tokenIds.add(tokenId);   // 정확한 집합에 먼저 추가해야 블룸 필터에서 찾은 값이 항상 집합에도 있다
+        bucket.filter.put(tokenId);
+        return added;
+    }
+
+    public boolean isRevoked(String tokenId, Date expiration) {
+        if (tokenId == null || expiration == null) {
+            return false;   // jti 가 없는 이전 형식의 토큰
+        }
+        Bucket bucket = buckets.get(bucketOf(expiration));
+        return bucket != null && bucket.filter.mightContain(tokenId) && bucket.tokenIds.contains(tokenId);
+    }
+
+    public int size() {
+        return buckets.values().stream().mapToInt(bucket -> bucket.tokenIds.size()).sum();
+    }
+
+    // 버킷의 모든 토큰이 만료된 버킷 삭제 (버킷 구간의 끝이 현재 시간보다 이전)
+    @Scheduled(fixedDelayString = "${jwt.denylist.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    void purgeExpired(long now) {
+        long currentBucket = bucketOf(new Date(now));
+        buckets.keySet().removeIf(bucket -> bucket < currentBucket);
+    }
+
+    private long bucketOf(Date expiration) {
+        return expiration.getTime() / (bucketMinutes * 60_000);
+    }
+
+    private record Bucket(BloomFilter filter, Set<String> tokenIds) {
+        Bucket(BloomFilter filter) {
+            this(filter, ConcurrentHashMap.newKeySet());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package jin.usersmanagementsystem.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class TokenVersionRegistry {
+
+    /**
+     * 사용자별 토큰 버전 관리
+     * 토큰을 발급할 때 사용자의 DB 버전(ourusers.version)을 클레임(ver)에 담고, 사용자가 수정되면 수정 후 버전을, 삭제되면 DELETED 를
+     * 최소 버전으로 올려 이전 토큰을 모두 무효화한다. 버전은 DB 에서 정해지므로 여러 인스턴스가 같은 사용자를 수정해도 값이 겹치지 않는다.
+     * 값이 없는 사용자는 최소 버전 0 으로 간주하므로 실제로 수정 / 삭제된 사용자만 메모리를 사용한다.
+     * 최소 버전을 올린 뒤 가장 긴 토큰 만료 시간(refreshToken 7일)이 지나면 그 이전에 발급된 토큰은 모두 만료되었으므로 값을 지운다.
+     * 메모리에만 저장되며, 애플리케이션을 시작할 때 UserChangeLog 가 변경 기록에서 다시 채운다.
+     */
+    public static final int DELETED = Integer.MAX_VALUE;   // 삭제된 사용자의 최소 버전 (모든 토큰 거부)
+
+    private final ConcurrentMap<Integer, Integer> minimumVersions = Caffeine.newBuilder()   // 사용자 ID -> 허용되는 최소 토큰 버전
+            .expireAfterWrite(JWTUtils.REFRESH_EXPIRATION_TIME, TimeUnit.MILLISECONDS)
+            .<Integer, Integer>build()
+            .asMap();
+
+    public int minimumVersion(Integer userId) {
+        return minimumVersions.getOrDefault(userId, 0);
+    }
+
+    // 토큰의 버전이 현재 허용되는 최소 버전 이상인지 확인
+    public boolean isAccepted(Integer userId, int tokenVersion) {
+        return tokenVersion >= minimumVersion(userId);
+    }
+
+    /**
+     * 최소 버전을 version 으로 올려서 그보다 낮은 버전의 토큰을 모두 무효화 (이미 더 높으면 그대로)
+     * 사용자 변경 시 UserChangeLog 가 변경 후 버전을 변경 기록에 남기고, 모든 인스턴스가 같은 값으로 올린다.
+     */
+    public int advanceTo(Integer userId, int version) {
+        return minimumVersions.merge(userId, version, Math::max);
+    }
+}
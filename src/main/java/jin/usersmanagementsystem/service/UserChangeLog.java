@@ -0,0 +1,318 @@
+package jin.usersmanagementsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class UserChangeLog {
+
+    /**
+     * 인스턴스 간 사용자 / 토큰 상태 동기화 (별도 메시지 브로커 없이 DB 테이블 사용)
+     * 사용자를 추가 / 수정 / 삭제하는 트랜잭션 안에서 user_change_log 에 한 행씩 추가하고 (커밋되어야 보인다),
+     * 각 인스턴스는 poll-interval-ms 마다 마지막으로 읽은 seq 이후의 행만 조회하여 변경된 사용자만 캐시에서 제거하고,
+     * 토큰 버전 / 폐기된 토큰 / 가입된 이메일 필터를 갱신한다. (자신이 남긴 기록은 이미 반영했으므로 건너뛴다)
+     * 따라서 다른 인스턴스의 변경은 보통 poll-interval-ms 안에 반영된다.
+     *
+     * seq 는 INSERT 할 때 정해지므로 먼저 받은 seq 가 나중에 커밋될 수 있다. 건너뛴 seq 는 gap-timeout-ms 동안 다시 조회하고,
+     * 그때까지 보이지 않으면 롤백된 것으로 보고 넘어간다. (이 경우 최대 지연은 gap-timeout-ms)
+     * 시작할 때 보관 기간 안의 기록으로 토큰 버전과 폐기된 토큰을 다시 채우므로, 보관 기간은 refreshToken 만료 시간(7일)보다 길어야 한다.
+     * 토큰 버전은 사용자 변경 트랜잭션 안에서 읽은 DB 버전이므로 인스턴스마다 따로 계산하지 않으며,
+     * 보관 기간이 지나도 아직 있는 사용자의 마지막 기록은 지우지 않는다.
+     */
+    public static final String USER_CREATED = "USER_CREATED";
+    public static final String USER_UPDATED = "USER_UPDATED";
+    public static final String USER_DELETED = "USER_DELETED";
+    public static final String TOKEN_REVOKED = "TOKEN_REVOKED";
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeLog.class);
+    private static final String INSERT_SQL = "insert into user_change_log (change_type, user_id, email, previous_email, token_version, token_id, token_expires_at, origin, created_at)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // 토큰 폐기를 제외하고 seq 가 ? 이하인 마지막 사용자 변경 기록의 seq (유형마다 (change_type, seq) 인덱스에서 한 건만 읽는다)
+    private static final String LATEST_USER_CHANGE_SEQ_SQL = "select max(seq) from ("
+            + "select max(seq) as seq from user_change_log where change_type = '" + USER_CREATED + "' and seq <= ?"
+            + " union all select max(seq) from user_change_log where change_type = '" + USER_UPDATED + "' and seq <= ?"
+            + " union all select max(seq) from user_change_log where change_type = '" + USER_DELETED + "' and seq <= ?) latest_by_type";
+    private static final RowMapper<Change> CHANGE_ROW_MAPPER = (rs, rowNum) -> new Change(rs.getLong("seq"), rs.getString("change_type"),
+            rs.getObject("user_id", Integer.class), rs.getString("email"), rs.getString("previous_email"), rs.getObject("token_version", Integer.class),
+            rs.getString("token_id"), rs.getLong("token_expires_at"), rs.getString("origin"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private OurUserDetailsService ourUserDetailsService;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${users.coherence.poll-batch-size:1000}")
+    private int pollBatchSize;          // 한 번에 읽는 최대 기록 수
+
+    @Value("${users.coherence.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;          // 건너뛴 seq 를 기다리는 시간 (가장 긴 사용자 변경 트랜잭션보다 길게)
+
+    @Value("${users.coherence.retention-hours:192}")
+    private long retentionHours;        // 기록 보관 기간 (기본 8일)
+
+    private final String instanceId = UUID.randomUUID().toString();   // 이 인스턴스가 남긴 기록 구분
+    private volatile boolean initialized;
+    private long watermark;                                       // 이 값 이하의 seq 는 모두 반영했거나 롤백된 것으로 판단
+    private final TreeSet<Long> appliedAboveWatermark = new TreeSet<>();   // watermark 보다 큰 seq 중 이미 반영한 것
+    private final Map<Long, Long> gapFirstSeenAt = new HashMap<>();       // 아직 보이지 않는 seq -> 처음 발견한 시간
+    private final TreeSet<Long> userChangesAboveWatermark = new TreeSet<>();   // watermark 보다 큰 사용자 변경 (토큰 폐기 제외) seq
+    private volatile long usersVersion;                           // 사용자 목록 ETag (usersVersion())
+    private Counter appliedCounter;
+
+    // 시작 시 현재 위치부터 읽고, 보관 기간 안의 토큰 버전 / 폐기된 토큰을 다시 채운다
+    @PostConstruct
+    void init() {
+        Long maxSeq = jdbcTemplate.queryForObject("select coalesce(max(seq), 0) from user_change_log", Long.class);
+        this.watermark = maxSeq == null ? 0 : maxSeq;
+        Long latestUserChange = jdbcTemplate.queryForObject(LATEST_USER_CHANGE_SEQ_SQL, Long.class, watermark, watermark, watermark);
+        this.usersVersion = latestUserChange == null ? 0 : latestUserChange;
+        jdbcTemplate.query("select user_id, max(token_version) from user_change_log where token_version is not null group by user_id",
+                rs -> {
+                    tokenVersionRegistry.advanceTo(rs.getInt(1), rs.getInt(2));
+                });
+        jdbcTemplate.query("select token_id, token_expires_at from user_change_log where change_type = ? and token_expires_at > ?",
+                rs -> {
+                    tokenDenylist.revoke(rs.getString(1), new Date(rs.getLong(2)));
+                }, TOKEN_REVOKED, System.currentTimeMillis());
+        this.appliedCounter = Counter.builder("users.coherence.applied").register(meterRegistry);
+        Gauge.builder("users.coherence.pending.gaps", gapFirstSeenAt, Map::size).register(meterRegistry);
+        this.initialized = true;
+    }
+
+    // 회원가입 (트랜잭션 안에서 호출)
+    public void userCreated(String email) {
+        usersCreated(List.of(email));
+    }
+
+    public void usersCreated(Collection<String> emails) {
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            rows.add(new Object[]{USER_CREATED, null, email, null, null, null, null, instanceId, now});
+        }
+        insert(rows);
+        afterCommit(this::poll);   // 사용자 목록 ETag 를 바로 올린다
+    }
+
+    /**
+     * 사용자 수정 (트랜잭션 안에서 호출)
+     * tokenVersion 은 같은 트랜잭션에서 올린 사용자의 DB 버전이며, 커밋되면 이 인스턴스의 최소 토큰 버전도 올린다. (이전 역할이 담긴 토큰 무효화)
+     * email 은 변경 후 이메일 (다른 인스턴스의 가입된 이메일 필터에 추가, 바뀌지 않았으면 null 가능), previousEmail 은 변경 전 이메일이며
+     * 다른 인스턴스는 두 이메일 키로 캐시에서 바로 제거한다.
+     */
+    public void userUpdated(Integer userId, String email, String previousEmail, int tokenVersion) {
+        usersUpdated(List.of(new UpdatedUser(userId, email, previousEmail, tokenVersion)));
+    }
+
+    public void usersUpdated(Collection<UpdatedUser> users) {
+        long now = System.currentTimeMillis();
+        Map<Integer, Integer> versions = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (UpdatedUser user : users) {
+            versions.put(user.userId(), user.tokenVersion());
+            rows.add(new Object[]{USER_UPDATED, user.userId(), user.email(), user.previousEmail(), user.tokenVersion(), null, null, instanceId, now});
+        }
+        usersChanged(rows, versions);
+    }
+
+    // 사용자 삭제 (트랜잭션 안에서 호출, 삭제된 사용자의 토큰을 모두 무효화), 사용자 ID -> 삭제된 사용자의 이메일
+    public void usersDeleted(Map<Integer, String> emailsById) {
+        long now = System.currentTimeMillis();
+        Map<Integer, Integer> versions = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(emailsById.size());
+        emailsById.forEach((userId, email) -> {
+            versions.put(userId, TokenVersionRegistry.DELETED);
+            rows.add(new Object[]{USER_DELETED, userId, email, null, TokenVersionRegistry.DELETED, null, null, instanceId, now});
+        });
+        usersChanged(rows, versions);
+    }
+
+    /**
+     * 토큰 폐기 (로그아웃 / 사용한 refreshToken). 이 인스턴스의 TokenDenylist 에는 호출하는 쪽에서 추가한다
+     * token_id 유니크 인덱스로 처음 기록한 경우에만 true (다른 인스턴스에서 같은 refreshToken 을 이미 사용했으면 false)
+     */
+    public boolean tokenRevoked(String tokenId, Date expiration) {
+        if (tokenId == null || expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return false;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, TOKEN_REVOKED, null, null, null, null, tokenId, expiration.getTime(), instanceId, System.currentTimeMillis());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void usersChanged(List<Object[]> rows, Map<Integer, Integer> versions) {
+        insert(rows);
+        afterCommit(() -> {
+            versions.forEach(tokenVersionRegistry::advanceTo);   // 롤백되면 토큰을 무효화하지 않는다
+            poll();                                              // 사용자 목록 ETag 를 바로 올린다
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * 다른 인스턴스가 남긴 기록을 읽어 반영
+     */
+    @Scheduled(fixedDelayString = "${users.coherence.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (!initialized) {
+            return;
+        }
+        try {
+            List<Change> changes = jdbcTemplate.query("select seq, change_type, user_id, email, previous_email, token_version, token_id, token_expires_at, origin"
+                    + " from user_change_log where seq > ? order by seq limit ?", CHANGE_ROW_MAPPER, watermark, pollBatchSize);
+            long deletes = 0;
+            for (Change change : changes) {
+                if (!TOKEN_REVOKED.equals(change.type)) {
+                    userChangesAboveWatermark.add(change.seq);   // 이 인스턴스의 기록 포함
+                }
+                if (!appliedAboveWatermark.add(change.seq) || instanceId.equals(change.origin)) {
+                    continue;   // 이미 반영했거나 이 인스턴스의 기록
+                }
+                switch (change.type) {
+                    case USER_CREATED -> registeredEmailFilter.add(change.email);
+                    case USER_UPDATED, USER_DELETED -> {
+                        ourUserDetailsService.evict(change.previousEmail);   // 이메일 키로 바로 제거 (null 이면 무시)
+                        ourUserDetailsService.evict(change.email);
+                        if (change.tokenVersion != null) {
+                            tokenVersionRegistry.advanceTo(change.userId, change.tokenVersion);
+                        }
+                        if (USER_DELETED.equals(change.type)) {
+                            deletes++;
+                        } else {
+                            registeredEmailFilter.add(change.email);
+                        }
+                    }
+                    case TOKEN_REVOKED -> tokenDenylist.revoke(change.tokenId, new Date(change.tokenExpiresAt));
+                    default -> log.warn("Unknown user change type {} at seq {}", change.type, change.seq);
+                }
+                appliedCounter.increment();
+            }
+            if (deletes > 0) {
+                registeredEmailFilter.recordDeletes(deletes);
+            }
+            if (!changes.isEmpty()) {
+                advanceWatermark(changes.get(changes.size() - 1).seq);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll user change log", e);
+        }
+    }
+
+    // 빈 seq 가 없거나, 빈 seq 를 gap-timeout-ms 이상 기다린 위치까지 watermark 를 올린다
+    private void advanceWatermark(long maxSeen) {
+        long now = System.currentTimeMillis();
+        while (watermark < maxSeen) {
+            long next = watermark + 1;
+            if (appliedAboveWatermark.remove(next)) {
+                gapFirstSeenAt.remove(next);   // 늦게 커밋된 seq
+            } else {
+                long firstSeenAt = gapFirstSeenAt.computeIfAbsent(next, seq -> now);
+                if (now - firstSeenAt < gapTimeoutMs) {
+                    break;   // 아직 커밋되지 않은 트랜잭션일 수 있다
+                }
+                gapFirstSeenAt.remove(next);   // 롤백 등으로 비어 있는 seq
+            }
+            watermark = next;
+        }
+        while (!userChangesAboveWatermark.isEmpty() && userChangesAboveWatermark.first() <= watermark) {
+            usersVersion = userChangesAboveWatermark.pollFirst();
+        }
+    }
+
+    /**
+     * 사용자 목록의 버전 (watermark 이하에서 토큰 폐기를 제외한 마지막 사용자 변경 기록의 seq, 기록이 없으면 0)
+     * watermark 이하의 seq 는 모두 커밋되었거나 롤백된 것이므로, 늦게 커밋되는 변경은 항상 이 값보다 큰 seq 로 반영된다.
+     * 다른 인스턴스의 변경은 poll-interval-ms 안에, 이 인스턴스의 변경은 커밋 직후 poll 로 반영된다.
+     */
+    public long usersVersion() {
+        return usersVersion;
+    }
+
+    /**
+     * 보관 기간이 지난 기록 삭제 (여러 인스턴스에서 실행되어도 결과는 같다)
+     * 아직 있는 사용자의 마지막 기록(최신 토큰 버전)은 남겨서 재시작한 인스턴스도 같은 최소 버전으로 시작한다.
+     * 마지막 사용자 변경 기록도 남겨서 재시작한 인스턴스의 목록 ETag (usersVersion) 가 이전 값으로 돌아가지 않도록 한다.
+     * 삭제된 사용자의 기록은 보관 기간(refreshToken 만료 시간보다 길다)이 지나면 남은 토큰이 모두 만료되었으므로 지운다.
+     * (MySQL 은 DELETE 대상 테이블을 서브쿼리에서 바로 읽을 수 없으므로 파생 테이블로 감싼다)
+     */
+    @Scheduled(fixedDelayString = "${users.coherence.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            long cutoff = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours);
+            int deleted = jdbcTemplate.update("delete from user_change_log where created_at < ? and seq not in ("
+                    + "select seq from (select max(l.seq) as seq from user_change_log l join ourusers u on u.id = l.user_id"
+                    + " where l.token_version is not null group by l.user_id"
+                    + " union all " + LATEST_USER_CHANGE_SEQ_SQL + ") latest where seq is not null)", cutoff, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+            if (deleted > 0) {
+                log.info("Deleted {} expired user change log rows", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to delete expired user change log rows", e);
+        }
+    }
+
+    // 수정된 사용자 (email: 변경 후 이메일, previousEmail: 변경 전 이메일, tokenVersion: 수정 후 DB 버전)
+    public record UpdatedUser(Integer userId, String email, String previousEmail, int tokenVersion) {
+    }
+
+    private record Change(long seq, String type, Integer userId, String email, String previousEmail, Integer tokenVersion,
+                          String tokenId, long tokenExpiresAt, String origin) {
+    }
+}
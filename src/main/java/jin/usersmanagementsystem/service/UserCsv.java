@@ -0,0 +1,180 @@
+package jin.usersmanagementsystem.service;
+
+import jin.usersmanagementsystem.dto.UserTransferRow;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 사용자 CSV 쓰기 / 읽기 (RFC 4180: 쉼표, 따옴표, 줄바꿈이 있는 값은 따옴표로 감싸고 따옴표는 두 번 쓴다)
+ * 빈 값은 null 로 읽는다.
+ */
+final class UserCsv {
+
+    private UserCsv() {
+    }
+
+    // 값 하나를 쓴다 (구분자는 호출하는 쪽에서 쓴다)
+    static void writeField(Writer out, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /**
+     * 첫 줄(헤더)의 컬럼 이름으로 값을 찾아 한 행씩 읽는다 (email 컬럼은 필수, 모르는 컬럼은 무시)
+     */
+    static Iterator<UserTransferRow> reader(Reader reader) {
+        return new RowIterator(reader);
+    }
+
+    private static final class RowIterator implements Iterator<UserTransferRow> {
+
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private int pushedBack = -2;   // 한 글자 되돌리기 (-2 이면 없음)
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long recordNumber;
+        private List<String> next;
+
+        private RowIterator(Reader reader) {
+            this.reader = reader;
+            List<String> header = read();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    String name = i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i);   // UTF-8 BOM 제거
+                    columns.put(name.trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            if (!columns.containsKey("email")) {
+                throw new IllegalArgumentException("CSV header must contain an email column");
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                List<String> record = read();
+                if (record == null) {
+                    return false;
+                }
+                if (record.size() > 1 || !record.get(0).isEmpty()) {   // 빈 줄은 건너뛴다
+                    next = record;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public UserTransferRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<String> record = next;
+            next = null;
+            String id = value(record, "id");
+            String version = value(record, "version");
+            return new UserTransferRow(id == null ? null : Integer.valueOf(id), value(record, "email"), value(record, "name"),
+                    value(record, "city"), value(record, "role"), version == null ? null : Integer.valueOf(version), value(record, "password"));
+        }
+
+        private String value(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+                return null;
+            }
+            return record.get(index);
+        }
+
+        // 레코드 하나를 읽는다 (따옴표 안의 줄바꿈 포함), 입력이 끝나면 null
+        private List<String> read() {
+            try {
+                int c = nextChar();
+                if (c == -1) {
+                    return null;
+                }
+                recordNumber++;
+                List<String> fields = new ArrayList<>();
+                StringBuilder field = new StringBuilder();
+                boolean quoted = false;
+                while (true) {
+                    if (quoted) {
+                        if (c == -1) {
+                            throw new IllegalArgumentException("Unterminated quoted field in CSV record " + recordNumber);
+                        }
+                        if (c == '"') {
+                            int following = nextChar();
+                            if (following != '"') {
+                                quoted = false;   // 닫는 따옴표
+                                c = following;
+                                continue;
+                            }
+                        }
+                        field.append((char) c);
+                    } else if (c == '"' && field.length() == 0) {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else if (c == '\n' || c == -1) {
+                        break;
+                    } else if (c == '\r') {
+                        int following = nextChar();
+                        if (following != '\n') {
+                            pushedBack = following;
+                        }
+                        break;
+                    } else {
+                        field.append((char) c);
+                    }
+                    c = nextChar();
+                }
+                fields.add(field.toString());
+                return fields;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private int nextChar() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+}
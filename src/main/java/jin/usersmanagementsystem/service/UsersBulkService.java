@@ -0,0 +1,246 @@
+package jin.usersmanagementsystem.service;
+
+import jin.usersmanagementsystem.dto.BulkDeleteRequest;
+import jin.usersmanagementsystem.dto.BulkRegisterResult;
+import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.entity.OurUsers;
+import jin.usersmanagementsystem.repository.UsersRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+@Service
+public class UsersBulkService {
+
+    /**
+     * 대량 회원가입
+     * 요청을 CHUNK_SIZE 단위로 나누어 처리하고, 청크마다
+     * 1. 이메일 / 비밀번호 누락, 요청 안에서의 중복, 이미 가입된 이메일을 먼저 걸러낸 뒤
+     * 2. 남은 사용자의 비밀번호를 해싱 전용 스레드 풀에서 병렬로 암호화하고
+     * 3. JDBC 배치 INSERT 한 번으로 저장한다.
+     * OurUsers 는 IDENTITY 전략이라 Hibernate 가 INSERT 를 배치로 묶지 못하므로 JdbcTemplate 으로 직접 저장한다.
+     * (MySQL 은 JDBC URL 에 rewriteBatchedStatements=true 가 있어야 여러 행을 하나의 INSERT 로 보낸다)
+     */
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_DELETE_IDS = 100_000;   // ids 로 한 번에 삭제할 수 있는 최대 사용자 수
+    private static final String INSERT_USER_SQL = "insert into ourusers (email, email_normalized, name, password, city, role) values (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UsersRepo usersRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private OurUserDetailsService ourUserDetailsService;
+
+    @Autowired
+    private UserChangeLog userChangeLog;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    public ReqRes bulkRegister(Iterator<ReqRes> registrationRequests) {
+        ReqRes resp = new ReqRes();
+        List<BulkRegisterResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();   // 요청 안에서 중복된 이메일 확인 (정규화된 이메일)
+        try {
+            List<ReqRes> chunk = new ArrayList<>(CHUNK_SIZE);
+            int startIndex = 0;
+            while (registrationRequests.hasNext()) {
+                chunk.add(registrationRequests.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(registerChunk(chunk, startIndex, seenEmails));
+                    startIndex += chunk.size();
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                results.addAll(registerChunk(chunk, startIndex, seenEmails));
+            }
+
+            long created = results.stream().filter(result -> BulkRegisterResult.CREATED.equals(result.getStatus())).count();
+            resp.setBulkRegisterResults(results);
+            resp.setStatusCode(200);
+            resp.setMessage(created + " of " + results.size() + " users saved");
+        } catch (Exception e) {
+            resp.setBulkRegisterResults(results);   // 처리된 청크까지의 결과는 그대로 반환
+            resp.setStatusCode(500);
+            resp.setError(e.getMessage());
+        }
+        return resp;
+    }
+
+    private List<BulkRegisterResult> registerChunk(List<ReqRes> chunk, int startIndex, Set<String> seenEmails) {
+        BulkRegisterResult[] results = new BulkRegisterResult[chunk.size()];
+
+        // 1. 검증 및 요청 안에서의 중복 확인
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            ReqRes request = chunk.get(i);
+            String email = request.getEmail();
+            if (email == null || email.isBlank() || request.getPassword() == null || request.getPassword().isEmpty()) {
+                results[i] = new BulkRegisterResult(startIndex + i, email, BulkRegisterResult.INVALID, "Email and password are required");
+            } else if (!seenEmails.add(OurUsers.normalizeEmail(email))) {
+                results[i] = new BulkRegisterResult(startIndex + i, email, BulkRegisterResult.DUPLICATE_EMAIL, "Duplicate email in request");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // 이미 가입된 이메일은 해싱하기 전에 제외 (가입된 이메일 필터에 있는 이메일만 청크 당 한 번의 IN 쿼리로 확인)
+        List<String> maybeRegistered = candidates.stream().map(i -> chunk.get(i).getEmail())
+                .filter(registeredEmailFilter::mightBeRegistered).map(OurUsers::normalizeEmail).collect(Collectors.toList());
+        Set<String> existingEmails = maybeRegistered.isEmpty() ? Set.of() : usersRepo.findExistingEmails(maybeRegistered);
+        List<Integer> toInsert = new ArrayList<>();
+        for (int i : candidates) {
+            if (existingEmails.contains(OurUsers.normalizeEmail(chunk.get(i).getEmail()))) {
+                results[i] = new BulkRegisterResult(startIndex + i, chunk.get(i).getEmail(), BulkRegisterResult.DUPLICATE_EMAIL, "Email already registered");
+            } else {
+                toInsert.add(i);
+            }
+        }
+
+        // 2. 비밀번호를 전용 스레드 풀에서 병렬로 해싱
+        // 해싱 대기열은 로그인 / 회원가입과 함께 사용하므로 스레드 수 만큼씩 나누어 제출하고 결과를 기다린 뒤 다음 묶음을 제출
+        List<Object[]> rows = new ArrayList<>(toInsert.size());
+        List<Integer> rowIndexes = new ArrayList<>(toInsert.size());
+        int window = passwordHashingService.getPoolSize();
+        for (int from = 0; from < toInsert.size(); from += window) {
+            List<Integer> batch = toInsert.subList(from, Math.min(from + window, toInsert.size()));
+            List<CompletableFuture<String>> hashes = new ArrayList<>(batch.size());
+            for (int i : batch) {
+                try {
+                    hashes.add(passwordHashingService.encodeAsync(chunk.get(i).getPassword()));
+                } catch (Exception e) {
+                    hashes.add(CompletableFuture.failedFuture(e));   // 대기열이 가득 찬 경우 해당 사용자만 실패 처리
+                }
+            }
+            for (int n = 0; n < batch.size(); n++) {
+                int i = batch.get(n);
+                ReqRes request = chunk.get(i);
+                try {
+                    String encodedPassword = hashes.get(n).join();
+                    rows.add(new Object[]{request.getEmail(), OurUsers.normalizeEmail(request.getEmail()), request.getName(), encodedPassword, request.getCity(), request.getRole()});
+                    rowIndexes.add(i);
+                } catch (Exception e) {
+                    results[i] = new BulkRegisterResult(startIndex + i, request.getEmail(), BulkRegisterResult.FAILED, e.getMessage());
+                }
+            }
+        }
+
+        // 3. 청크 단위 트랜잭션으로 JDBC 배치 INSERT
+        if (!rows.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows);
+                    userChangeLog.usersCreated(rowIndexes.stream().map(i -> chunk.get(i).getEmail()).toList());
+                });
+                for (int i : rowIndexes) {
+                    results[i] = new BulkRegisterResult(startIndex + i, chunk.get(i).getEmail(), BulkRegisterResult.CREATED, null);
+                    registeredEmailFilter.add(chunk.get(i).getEmail());
+                    auditLog.record(AuditLog.USER_REGISTERED, null, chunk.get(i).getEmail());   // 배치 INSERT 는 생성된 ID 를 받지 않는다
+                }
+            } catch (Exception e) {
+                for (int i : rowIndexes) {   // 배치가 실패하면 청크 전체가 롤백된다.
+                    results[i] = new BulkRegisterResult(startIndex + i, chunk.get(i).getEmail(), BulkRegisterResult.FAILED, e.getMessage());
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * 대량 삭제
+     * ids 가 있으면 CHUNK_SIZE 개씩, 없으면 role / city 조건에 맞는 사용자 ID 를 키셋으로 CHUNK_SIZE 개씩 조회하여
+     * 청크마다 짧은 트랜잭션 안에서 DELETE 한 번으로 삭제한다. (한 트랜잭션으로 수만 행을 지우면 잠금이 오래 유지된다)
+     * 중간에 실패하면 이전 청크까지는 이미 커밋되어 있으므로, 그때까지 삭제된 수를 함께 반환한다.
+     */
+    public ReqRes bulkDelete(BulkDeleteRequest request) {
+        ReqRes resp = new ReqRes();
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (!byIds && request.getRole() == null && request.getCity() == null) {
+            resp.setStatusCode(400);
+            resp.setMessage("ids, role or city is required");
+            return resp;
+        }
+        if (byIds && request.getIds().size() > MAX_DELETE_IDS) {
+            resp.setStatusCode(400);
+            resp.setMessage("At most " + MAX_DELETE_IDS + " ids can be deleted at once");
+            return resp;
+        }
+
+        int affected = 0;
+        try {
+            if (byIds) {
+                List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));   // 중복 ID 제거
+                for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                    affected += deleteChunk(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+                }
+            } else {
+                int afterId = 0;
+                while (true) {
+                    List<Integer> ids = usersRepo.findIdsAfter(afterId, request.getCity(), request.getRole(), PageRequest.ofSize(CHUNK_SIZE));
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    affected += deleteChunk(ids);
+                    afterId = ids.get(ids.size() - 1);
+                }
+            }
+            resp.setStatusCode(200);
+            resp.setMessage(affected + " users deleted");
+        } catch (Exception e) {
+            resp.setStatusCode(500);
+            resp.setError(e.getMessage());
+        }
+        resp.setAffectedCount(affected);
+        return resp;
+    }
+
+    private int deleteChunk(List<Integer> ids) {
+        // 청크 트랜잭션 안에서 실제로 있는 ID 를 행 잠금과 함께 조회하고, 그 ID 만 삭제 / 변경 기록 / 감사 로그에 남긴다
+        Map<Integer, String> deleted = transactionTemplate.execute(status -> {
+            Map<Integer, String> existing = new LinkedHashMap<>();   // ID -> 정규화된 이메일 (캐시 키)
+            namedParameterJdbcTemplate.query("select id, email_normalized from ourusers where id in (:ids) for update",
+                    Map.of("ids", ids), rs -> {
+                        existing.put(rs.getInt("id"), rs.getString("email_normalized"));
+                    });
+            if (!existing.isEmpty()) {
+                usersRepo.deleteByIdIn(existing.keySet());
+                userChangeLog.usersDeleted(existing);            // 커밋되면 삭제된 사용자의 토큰을 무효화 (없던 ID 는 기록하지 않는다)
+            }
+            return existing;
+        });
+        deleted.values().forEach(ourUserDetailsService::evict);   // 삭제된 사용자의 캐시 무효화 (이메일 키로 바로 제거)
+        registeredEmailFilter.recordDeletes(deleted.size());
+        deleted.keySet().forEach(id -> auditLog.record(AuditLog.USER_DELETED, id, "bulk"));
+        return deleted.size();
+    }
+}
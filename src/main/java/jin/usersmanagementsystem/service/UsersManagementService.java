@@ -1,21 +1,45 @@
 package jin.usersmanagementsystem.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.dto.UserPatchRequest;
+import jin.usersmanagementsystem.dto.UserSearchCriteria;
+import jin.usersmanagementsystem.dto.UserView;
 import jin.usersmanagementsystem.entity.OurUsers;
 import jin.usersmanagementsystem.repository.UsersRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.StringJoiner;
 
 @Service
 public class UsersManagementService {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;  // 페이지 조회 기본 크기
+    private static final int MAX_PAGE_SIZE = 1000;     // 한 번에 조회할 수 있는 최대 크기
+    private static final int MAX_MULTI_GET_IDS = 1000; // 여러 ID 조회 시 한 번에 요청할 수 있는 최대 ID 수
+    private static final int IN_QUERY_CHUNK_SIZE = 500; // IN 절에 넣는 ID 수 (너무 긴 쿼리 / 실행 계획 캐시 낭비 방지)
+    private static final long SEARCH_COUNT_CAP = 10_000; // 검색 결과 수는 이 수까지만 센다
+
     @Autowired
     private UsersRepo usersRepo;   // 사용자 정보를 관리하는 데이터베이스
 
@@ -28,13 +52,45 @@ public class UsersManagementService {
     @Autowired
     private PasswordEncoder passwordEncoder;   // 비밀번호를 암호화하는 인코더
 
+    @Autowired
+    private OurUserDetailsService ourUserDetailsService;   // 인증 시 사용하는 사용자 정보 캐시 (수정 / 삭제 시 캐시를 비운다)
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;     // 사용자별 토큰 버전 (수정 / 삭제 이전에 발급된 refreshToken 거부)
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;               // 이메일별 로그인 / 회원가입 요청 한도
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;   // 가입된 이메일 블룸 필터 (중복 가입 사전 검사)
+
+    @Autowired
+    private TokenDenylist tokenDenylist;                   // 로그아웃 / 사용한 refreshToken 폐기 목록
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;       // 사용자 변경과 변경 기록(user_change_log)을 한 트랜잭션으로 묶는다
+
+    @Autowired
+    private AuditLog auditLog;                             // 사용자 변경 / 로그인 감사 로그 (버퍼에 넣기만 한다)
+
+    @Autowired
+    private UserChangeLog userChangeLog;                   // 다른 인스턴스에 알릴 변경 기록 (사용자 변경과 같은 트랜잭션에서 기록)
+
     /**
      * 회원가입
      */
-    public ReqRes register(ReqRes registrationRequest) {
+    public ReqRes register(ReqRes registrationRequest, String clientIp) {
         ReqRes resp = new ReqRes();  // ReqRes: 사용자 등록 요청 정보를 담고 있는 객체입니다. 사용자의 이메일, 도시, 역할, 이름, 비밀번호 등의 정보가 포함
                                      // resp: 응답 정보를 담기 위한 객체입니다. 등록 성공 또는 실패 시 응답 메시지와 상태 코드를 포함
         try {
+            authRateLimiter.checkEmail(registrationRequest.getEmail(), clientIp);   // 같은 IP 에서 같은 이메일로 반복되는 요청은 해싱 전에 거부 (429)
+            // 이미 가입된 이메일은 해싱 / INSERT 전에 거부 (필터에 없으면 DB 조회도 생략)
+            if (registrationRequest.getEmail() != null && registeredEmailFilter.mightBeRegistered(registrationRequest.getEmail())
+                    && usersRepo.existsByEmailNormalized(OurUsers.normalizeEmail(registrationRequest.getEmail()))) {
+                resp.setStatusCode(409);
+                resp.setError("Email already registered");
+                return resp;
+            }
             // 사용자 객체 생성 및 저장
             OurUsers ourUser = new OurUsers();     // OurUsers: 새로 등록할 사용자 객체입니다. 이 객체는 데이터베이스에 저장될 사용자 정보를 담습니다.
             ourUser.setEmail(registrationRequest.getEmail());
@@ -42,16 +98,27 @@ public class UsersManagementService {
             ourUser.setRole(registrationRequest.getRole());
             ourUser.setName(registrationRequest.getName());
             ourUser.setPassword(passwordEncoder.encode(registrationRequest.getPassword())); // 입력된 비밀번호를 암호화하여 저장
-            OurUsers ourUsersResult = usersRepo.save(ourUser);
+            OurUsers ourUsersResult = transactionTemplate.execute(status -> {
+                OurUsers saved = usersRepo.save(ourUser);
+                userChangeLog.userCreated(saved.getEmail());
+                return saved;
+            });
 
+            registeredEmailFilter.add(ourUsersResult.getEmail());
+            auditLog.record(AuditLog.USER_REGISTERED, ourUsersResult.getId(), ourUsersResult.getEmail());
             if (ourUsersResult.getId() > 0) { // 데이터베이스에 사용자가 성공적으로 저장되었는지 확인합니다. 데이터베이스에 저장되면 사용자 ID는 1 이상의 값
                 // 성공적으로 저장되었음을 의미
-                resp.setOurUsers(ourUsersResult);    // 응답 객체에 저장된 사용자 정보를 설정
+                resp.setOurUsers(UserView.from(ourUsersResult));    // 응답 객체에 저장된 사용자 정보를 설정 (비밀번호 제외)
                 resp.setMessage("User Saved Successfully");  // 성공 메시지를 설정
                 resp.setStatusCode(200);          // HTTP 상태 코드 200(성공)을 설정
             }
 
             // 예외 처리
+        } catch (PasswordHashingRejectedException | RateLimitExceededException e) {
+            throw e;   // 해싱 대기열이 가득 찬 경우 503, 요청 한도를 넘은 경우 429 로 응답 (GlobalExceptionHandler)
+        } catch (DataIntegrityViolationException e) {
+            resp.setStatusCode(409);   // 동시에 같은 이메일로 가입한 경우 유니크 인덱스에서 거부
+            resp.setError("Email already registered");
         } catch (Exception e) {
             resp.setStatusCode(500);
             resp.setError(e.getMessage());
@@ -63,22 +130,33 @@ public class UsersManagementService {
     /**
      * 로그인
      */
-    public ReqRes login(ReqRes loginRequest) {
+    public ReqRes login(ReqRes loginRequest, String clientIp) {
         ReqRes response =  new ReqRes();
         try {    // authenticationManager.authenticate를 사용하여 사용자 인증을 시도, 제공된 이메일과 비밀번호를 확인하여 사용자를 인증합니다. 자격 증명이 정확하면 사용자는 인증된 것으로 간주
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
+            authRateLimiter.checkLogin(loginRequest.getEmail(), clientIp);   // (계정, IP) 별 로그인 실패 한도 (비밀번호 해싱 / DB 조회 전에 확인, 넘으면 429)
+            // 인증에 성공했는데 저장된 해시가 현재 해싱 정책(PasswordEncodingPolicy)과 다르면 DaoAuthenticationProvider 가 다시 해싱하여 저장
+            try {
+                authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
+            } catch (BadCredentialsException e) {
+                authRateLimiter.recordLoginFailure(loginRequest.getEmail(), clientIp);   // 실패한 시도만 한도에서 차감
+                throw e;
+            }
             var user = usersRepo.findByEmail(loginRequest.getEmail()).orElseThrow(); // 제공된 이메일을 사용하여 데이터베이스에서 사용자 세부 정보를 검색
             var jwt = jwtUtils.generateToken(user);                                  // 인증된 사용자를 위한 JWT 토큰을 생성
             var refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), user); // 인증된 사용자를 위한 새로 고침 토큰을 생성
+            auditLog.record(AuditLog.LOGIN_SUCCEEDED, user.getId(), user.getEmail());
             response.setStatusCode(200);     // HTTP 상태 코드를 200으로 설정하여 작업 성공을 나타냄
             response.setToken(jwt);          // 생성된 JWT 토큰을 응답에 첨부
             response.setRole(user.getRole()); // Role 저장
             response.setRefreshToken(refreshToken);       // 성된 새로 고침 토큰을 응답에 첨부
-            response.setExpirationTime("24Hrs");          // 토큰 만료 시간을 24시간으로 설정
+            response.setExpirationTime(jwtUtils.accessTokenExpirationTime());   // 발급한 토큰의 만료 시간
             response.setMessage("Successfully Logged In");  // 성공 메시지를 설정
 
             // 인증이 실패하거나 오류가 발생하면 catch 블록은 500 상태 코드를 설정하고 오류 메시지를 응답에 첨부
+        } catch (PasswordHashingRejectedException | RateLimitExceededException e) {
+            throw e;   // 해싱 대기열이 가득 찬 경우 503, 요청 한도를 넘은 경우 429 로 응답 (GlobalExceptionHandler)
         } catch (Exception e) {
+            auditLog.record(AuditLog.LOGIN_FAILED, null, loginRequest.getEmail());
             response.setStatusCode(500);
             response.setError(e.getMessage());
         }
@@ -87,24 +165,47 @@ public class UsersManagementService {
 
     /**
      * refreshToken 갱신
+     * typ=refresh 이고 폐기되지 않은 토큰만 받으며, 사용할 때마다 새 refreshToken 을 발급하고 이전 토큰은 폐기한다. (재사용 방지)
      */
     public ReqRes refreshToken(ReqRes refreshTokenReqiest){
         ReqRes response = new ReqRes();
         try{
-            String ourEmail = jwtUtils.extractUsername(refreshTokenReqiest.getToken());  // jwtUtils.extractUsername: 제공된 토큰에서 이메일/사용자 이름을 추출
-            OurUsers users = usersRepo.findByEmail(ourEmail).orElseThrow();              //  이메일과 연결된 사용자를 검색
-            if (jwtUtils.isTokenValid(refreshTokenReqiest.getToken(), users)) {      // jwtUtils.isTokenValid: 제공된 새로 고침 토큰이 여전히 유효한지 확인
+            Claims claims = jwtUtils.extractAllClaims(refreshTokenReqiest.getToken());       // 서명 / 만료 검증 (실패하면 예외)
+            Integer userId = claims.get(JWTUtils.CLAIM_USER_ID, Integer.class);
+            Integer tokenVersion = claims.get(JWTUtils.CLAIM_TOKEN_VERSION, Integer.class);
+            if (!jwtUtils.isRefreshToken(claims)
+                    || tokenDenylist.isRevoked(claims.getId(), claims.getExpiration())
+                    || (userId != null && tokenVersion != null && !tokenVersionRegistry.isAccepted(userId, tokenVersion))) {
+                response.setStatusCode(401);
+                response.setMessage("Invalid refresh token");   // access 토큰, 로그아웃된 토큰, 사용자 수정 / 삭제 이전에 발급된 토큰
+                return response;
+            }
+            OurUsers users = usersRepo.findByEmail(claims.getSubject()).orElse(null);       //  이메일과 연결된 사용자를 검색 (삭제된 사용자는 null)
+            if (users != null && jwtUtils.isTokenValid(claims, users)) {      // jwtUtils.isTokenValid: 제공된 새로 고침 토큰이 여전히 유효한지 확인
+                // 사용한 refreshToken 은 폐기하고, 이 요청이 처음 폐기한 경우에만 새 토큰을 발급 (이 인스턴스 / 다른 인스턴스에서 동시에 재사용한 요청은 401)
+                if (!tokenDenylist.revoke(claims.getId(), claims.getExpiration())
+                        || !userChangeLog.tokenRevoked(claims.getId(), claims.getExpiration())) {
+                    response.setStatusCode(401);
+                    response.setMessage("Invalid refresh token");
+                    return response;
+                }
                 var jwt = jwtUtils.generateToken(users);            // jwtUtils.generateToken: 새로 고침 토큰이 유효한 경우 사용자를 위한 새 JWT 토큰을 생성
                 response.setStatusCode(200);
                 response.setToken(jwt);      // 응답에 새 JWT 토큰을 설정
-                response.setRefreshToken(refreshTokenReqiest.getToken());
-                response.setExpirationTime("24Hr");
+                response.setRefreshToken(jwtUtils.generateRefreshToken(new HashMap<>(), users));
+                response.setExpirationTime(jwtUtils.accessTokenExpirationTime());
                 response.setMessage("Successfully Refreshed Token");
+            } else {
+                response.setStatusCode(401);
+                response.setMessage("Invalid refresh token");
             }
-            response.setStatusCode(200);
             return response;
 
             // 새로 고침 토큰이 유효하지 않거나 오류가 발생하면 catch 블록이 예외를 처리하고 적절한 오류 메시지와 상태 코드를 설정
+        }catch (JwtException e){
+            response.setStatusCode(401);
+            response.setMessage(e.getMessage());   // 서명이 올바르지 않거나 만료된 토큰
+            return response;
         }catch (Exception e){
             response.setStatusCode(500);
             response.setMessage(e.getMessage());
@@ -112,14 +213,42 @@ public class UsersManagementService {
         }
     }
 
+    /**
+     * 로그아웃
+     * 요청의 token / refreshToken 을 만료 시간까지 폐기 목록(TokenDenylist)에 등록하여 더 이상 사용할 수 없게 한다.
+     * 이미 만료되었거나 서명이 올바르지 않은 토큰은 무시한다.
+     */
+    public ReqRes logout(ReqRes logoutRequest) {
+        ReqRes response = new ReqRes();
+        int revoked = 0;
+        for (String token : new String[]{logoutRequest.getToken(), logoutRequest.getRefreshToken()}) {
+            if (token == null || token.isBlank()) {
+                continue;
+            }
+            try {
+                Claims claims = jwtUtils.extractAllClaims(token);
+                tokenDenylist.revoke(claims.getId(), claims.getExpiration());
+                userChangeLog.tokenRevoked(claims.getId(), claims.getExpiration());   // 다른 인스턴스의 폐기 목록에도 추가
+                revoked++;
+            } catch (JwtException e) {
+                // 이미 사용할 수 없는 토큰
+            }
+        }
+        response.setStatusCode(200);
+        response.setAffectedCount(revoked);
+        response.setMessage("Successfully Logged Out");
+        return response;
+    }
+
     /**
      * 모든 사용자 조회
      */
+    @Transactional(readOnly = true)
     public ReqRes getAllUsers() {
         ReqRes reqRes = new ReqRes();
 
         try {
-            List<OurUsers> result = usersRepo.findAll(); // 데이터베이스에서 모든 사용자 레코드를 가져옵니다.
+            List<UserView> result = usersRepo.findAllViews(); // 데이터베이스에서 모든 사용자 레코드를 표시할 컬럼만 가져옵니다.
             if (!result.isEmpty()) {
                 reqRes.setOurUsersList(result); // 사용자가 발견되면 응답에 사용자 목록을 설정
                 reqRes.setStatusCode(200);
@@ -136,13 +265,120 @@ public class UsersManagementService {
         }
     }
 
+    /**
+     * 사용자 페이지 조회 (키셋 페이지네이션)
+     * cursor 는 이전 페이지 응답의 nextCursor 값이며, 첫 페이지는 null
+     * 조회 비용은 테이블 크기와 관계없이 페이지 크기에만 비례한다.
+     */
+    @Transactional(readOnly = true)
+    public ReqRes getUsersPage(String cursor, Integer size, String city, String role) {
+        ReqRes reqRes = new ReqRes();
+        try {
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+            int afterId = decodeCursor(cursor);
+            List<UserView> result = usersRepo.findPageAfter(afterId, city, role, PageRequest.ofSize(pageSize + 1)); // 다음 페이지가 있는지 확인하기 위해 한 건을 더 조회
+            boolean hasNext = result.size() > pageSize;
+            if (hasNext) {
+                result = result.subList(0, pageSize);
+                reqRes.setNextCursor(encodeCursor(result.get(pageSize - 1).getId()));
+            }
+            reqRes.setOurUsersList(result);
+            reqRes.setStatusCode(200);
+            reqRes.setMessage("Successful");
+        } catch (IllegalArgumentException e) {
+            reqRes.setStatusCode(400);
+            reqRes.setMessage("Invalid cursor");
+        } catch (Exception e) {
+            reqRes.setStatusCode(500);
+            reqRes.setMessage("Error occurred: " + e.getMessage());
+        }
+        return reqRes;
+    }
+
+    /**
+     * 사용자 검색 (역할 / 도시 / 이름 앞부분 / 이메일 앞부분, 키셋 페이지네이션)
+     * 조건에 맞는 인덱스로만 조회하며, 결과 수는 첫 페이지에서만 SEARCH_COUNT_CAP 까지 센다.
+     */
+    @Transactional(readOnly = true)
+    public ReqRes searchUsers(UserSearchCriteria criteria, String cursor, Integer size) {
+        ReqRes reqRes = new ReqRes();
+        try {
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+            SearchCursor after = decodeSearchCursor(cursor, criteria);
+            List<UserView> result = usersRepo.search(criteria, after.afterKey(), after.afterId(), pageSize + 1); // 다음 페이지가 있는지 확인하기 위해 한 건을 더 조회
+            if (result.size() > pageSize) {
+                result = result.subList(0, pageSize);
+                reqRes.setNextCursor(encodeSearchCursor(criteria, result.get(pageSize - 1)));
+            }
+            if (cursor == null || cursor.isBlank()) {
+                long count = usersRepo.countUpTo(criteria, SEARCH_COUNT_CAP + 1);
+                reqRes.setTotalCount(Math.min(count, SEARCH_COUNT_CAP));
+                reqRes.setTotalCountCapped(count > SEARCH_COUNT_CAP);
+            }
+            reqRes.setOurUsersList(result);
+            reqRes.setStatusCode(200);
+            reqRes.setMessage("Successful");
+        } catch (IllegalArgumentException e) {
+            reqRes.setStatusCode(400);
+            reqRes.setMessage("Invalid cursor");
+        } catch (Exception e) {
+            reqRes.setStatusCode(500);
+            reqRes.setMessage("Error occurred: " + e.getMessage());
+        }
+        return reqRes;
+    }
+
+    // 커서 = 마지막으로 내려준 사용자 ID 를 base64 로 인코딩한 값
+    private String encodeCursor(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)); // 잘못된 커서는 IllegalArgumentException (NumberFormatException 포함)
+    }
+
+    // 검색 커서 = "정렬 방식.조건 해시.마지막 사용자 ID:정렬 키" (앞부분 조건이 없으면 ID 만) 를 base64 로 인코딩한 값
+    private String encodeSearchCursor(UserSearchCriteria criteria, UserView last) {
+        String sortKey = criteria.sortKeyOf(last);
+        String value = criteria.sortType() + "." + Integer.toHexString(criteria.conditionsHash()) + "."
+                + (sortKey == null ? String.valueOf(last.getId()) : last.getId() + ":" + sortKey);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SearchCursor decodeSearchCursor(String cursor, UserSearchCriteria criteria) {
+        if (cursor == null || cursor.isBlank()) {
+            return new SearchCursor(null, 0);
+        }
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\.", 3);
+        if (parts.length != 3 || !parts[0].equals(criteria.sortType())
+                || !parts[1].equals(Integer.toHexString(criteria.conditionsHash()))) {
+            throw new IllegalArgumentException("Cursor does not match the search conditions");   // 다른 정렬 / 조건의 커서 (400)
+        }
+        String value = parts[2];
+        int separator = value.indexOf(':');   // ID 에는 ':' 가 없으므로 첫 ':' 뒤가 정렬 키
+        boolean keyed = !criteria.sortType().equals("id");
+        if (keyed != (separator >= 0)) {
+            throw new IllegalArgumentException("Cursor does not match the search conditions");
+        }
+        return keyed
+                ? new SearchCursor(value.substring(separator + 1), Integer.parseInt(value.substring(0, separator)))
+                : new SearchCursor(null, Integer.parseInt(value));
+    }
+
+    private record SearchCursor(String afterKey, int afterId) {
+    }
+
     /**
      * ID로 사용자 조회
      */
+    @Transactional(readOnly = true)
     public ReqRes getUsersById(Integer id) {
         ReqRes reqRes = new ReqRes();
         try {
-            OurUsers usersById = usersRepo.findById(id).orElseThrow(() -> new RuntimeException("User Not found"));  // 제공된 ID와 연결된 사용자를 가져옵니다.
+            UserView usersById = usersRepo.findViewById(id).orElseThrow(() -> new RuntimeException("User Not found"));  // 제공된 ID와 연결된 사용자를 가져옵니다.
             reqRes.setOurUsers(usersById);  // 사용자를 찾으면 응답에 사용자의 세부 정보가 설정
             reqRes.setStatusCode(200);
             reqRes.setMessage("Users with id '" + id + "' found successfully");
@@ -153,15 +389,67 @@ public class UsersManagementService {
         return reqRes;
     }
 
+    /**
+     * 여러 ID로 사용자 조회
+     * 중복을 제거한 ID 를 IN_QUERY_CHUNK_SIZE 개씩 IN 쿼리로 조회하고, 요청한 순서대로 사용자와 찾지 못한 ID 를 반환
+     */
+    @Transactional(readOnly = true)
+    public ReqRes getUsersByIds(List<Integer> ids) {
+        ReqRes reqRes = new ReqRes();
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_MULTI_GET_IDS) {
+            reqRes.setStatusCode(400);
+            reqRes.setMessage("Between 1 and " + MAX_MULTI_GET_IDS + " ids are required");
+            return reqRes;
+        }
+        try {
+            List<Integer> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+            Map<Integer, UserView> found = new HashMap<>();
+            for (int from = 0; from < distinctIds.size(); from += IN_QUERY_CHUNK_SIZE) {
+                List<Integer> chunk = distinctIds.subList(from, Math.min(from + IN_QUERY_CHUNK_SIZE, distinctIds.size()));
+                usersRepo.findViewsByIdIn(chunk).forEach(user -> found.put(user.getId(), user));
+            }
+
+            List<UserView> users = new ArrayList<>(found.size());
+            List<Integer> missingIds = new ArrayList<>();
+            for (Integer id : distinctIds) {
+                UserView user = found.get(id);
+                if (user != null) {
+                    users.add(user);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+            reqRes.setOurUsersList(users);
+            reqRes.setMissingIds(missingIds);
+            reqRes.setStatusCode(200);
+            reqRes.setMessage(users.size() + " of " + distinctIds.size() + " users found");
+        } catch (Exception e) {
+            reqRes.setStatusCode(500);
+            reqRes.setMessage("Error occurred: " + e.getMessage());
+        }
+        return reqRes;
+    }
+
     /**
      * 사용자 삭제
      */
     public ReqRes deleteUser(Integer userId) {
         ReqRes reqRes = new ReqRes();
         try {
-            Optional<OurUsers> userOptional = usersRepo.findById(userId);  // 삭제할 사용자를 찾습니다.
-            if (userOptional.isPresent()) {
-                usersRepo.deleteById(userId);   // 사용자가 발견되면 usersRepo.deleteById(userId)를 사용하여 삭제
+            // 삭제할 사용자의 이메일(캐시 키)을 행 잠금과 함께 조회한 뒤 삭제, 없으면 null
+            String deletedEmail = transactionTemplate.execute(status -> {
+                Optional<String> email = usersRepo.findEmailNormalizedByIdForUpdate(userId);
+                if (email.isEmpty() || usersRepo.deleteUserById(userId) == 0) {
+                    return null;
+                }
+                userChangeLog.usersDeleted(Map.of(userId, email.get()));   // 커밋되면 삭제된 사용자의 토큰을 무효화 (stateless 인증 모드)
+                return email.get();
+            });
+            reqRes.setAffectedCount(deletedEmail != null ? 1 : 0);
+            if (deletedEmail != null) {
+                ourUserDetailsService.evict(deletedEmail);   // 삭제된 사용자의 토큰이 캐시로 인증되지 않도록 제거
+                registeredEmailFilter.recordDeletes(1);
+                auditLog.record(AuditLog.USER_DELETED, userId, null);
                 reqRes.setStatusCode(200);
                 reqRes.setMessage("User deleted successfully"); // 삭제에 성공하면 성공 메시지와 함께 상태 코드 200이 반환
             } else {
@@ -184,6 +472,7 @@ public class UsersManagementService {
             Optional<OurUsers> userOptional = usersRepo.findById(userId);  // 업데이트할 사용자를 찾습니다.
             if (userOptional.isPresent()) {
                 OurUsers existingUser = userOptional.get();
+                String previousEmail = existingUser.getEmail();
                 existingUser.setEmail(updatedUser.getEmail());  // 사용자를 찾으면 해당 사용자의 세부정보(이메일, 이름, 도시, 역할)가 업데이트
                 existingUser.setName(updatedUser.getName());
                 existingUser.setCity(updatedUser.getCity());
@@ -195,14 +484,27 @@ public class UsersManagementService {
                     existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));  // 새 비밀번호가 제공되면 업데이트되기 전에 passwordEncoder.encode를 사용하여 인코딩
                 }
 
-                OurUsers savedUser = usersRepo.save(existingUser);  // 업데이트 후 사용자는 데이터베이스에 다시 저장
-                reqRes.setOurUsers(savedUser);
+                OurUsers savedUser = transactionTemplate.execute(status -> {
+                    OurUsers saved = usersRepo.saveAndFlush(existingUser);  // 업데이트 후 사용자는 데이터베이스에 다시 저장 (flush 해야 올라간 버전을 알 수 있다)
+                    userChangeLog.userUpdated(userId, saved.getEmail(), previousEmail, saved.getVersion());   // 커밋되면 이전 역할이 담긴 토큰을 무효화 (stateless 인증 모드)
+                    return saved;
+                });
+                ourUserDetailsService.evict(previousEmail);          // 변경된 역할 / 비밀번호가 다음 요청부터 바로 반영되도록 캐시를 비운다
+                ourUserDetailsService.evict(savedUser.getEmail());
+                registeredEmailFilter.add(savedUser.getEmail());      // 변경된 이메일로 가입하지 못하도록 필터에 추가
+                auditLog.record(AuditLog.USER_UPDATED, userId, savedUser.getEmail());
+                reqRes.setOurUsers(UserView.from(savedUser));
                 reqRes.setStatusCode(200);
                 reqRes.setMessage("User updated successfully");  // 업데이트가 성공하면 200 상태 코드와 성공 메시지를 반환
             } else {
                 reqRes.setStatusCode(404);
                 reqRes.setMessage("User not found for update");  // 사용자가 발견되지 않으면 404 상태 코드와 적절한 메시지를 반환
             }
+        } catch (PasswordHashingRejectedException e) {
+            throw e;   // 해싱 대기열이 가득 찬 경우 503 으로 응답 (GlobalExceptionHandler)
+        } catch (ObjectOptimisticLockingFailureException e) {
+            reqRes.setStatusCode(409);
+            reqRes.setMessage("User was modified concurrently, reload and retry");  // 조회와 저장 사이에 다른 요청이 먼저 수정한 경우
         } catch (Exception e) {
             reqRes.setStatusCode(500);
             reqRes.setMessage("Error occurred while updating user: " + e.getMessage()); // 업데이트 중 오류가 발생하면 500 상태 코드와 오류 메시지를 반환
@@ -210,13 +512,141 @@ public class UsersManagementService {
         return reqRes;
     }
 
+    /**
+     * 사용자 부분 수정 (PATCH)
+     * 전달된 필드만 UPDATE 한 번으로 변경하며, 비밀번호가 없으면 BCrypt 해싱을 하지 않는다.
+     * version 이 현재 버전과 다르면 409 를 반환하여 다른 관리자의 수정을 덮어쓰지 않는다.
+     * 변경할 필드가 하나도 없으면 400, 다른 사용자가 사용 중인 이메일로 바꾸려 하면 409
+     */
+    public ReqRes patchUser(Integer userId, UserPatchRequest patch) {
+        ReqRes reqRes = new ReqRes();
+        String fields = patchedFields(patch);
+        if (fields.isEmpty()) {
+            reqRes.setStatusCode(400);
+            reqRes.setMessage("No fields to update");   // 변경할 필드 없이 버전만 올리지 않도록 거부
+            return reqRes;
+        }
+        if (patch.getVersion() == null) {
+            reqRes.setStatusCode(400);
+            reqRes.setMessage("version is required");   // 버전 없이 보내면 다른 관리자의 수정을 모르고 덮어쓰므로 거부
+            return reqRes;
+        }
+        try {
+            String encodedPassword = patch.getPassword() == null || patch.getPassword().isEmpty()
+                    ? null : passwordEncoder.encode(patch.getPassword());   // 비밀번호가 바뀌는 경우에만 해싱
+            // 수정 전 이메일(캐시 키)을 행 잠금과 함께 조회한 뒤 수정, 수정되지 않았으면 null
+            // 수정된 사용자 (새 버전 포함) 는 응답에 담아 다음 PATCH 에 다시 조회하지 않고 쓸 수 있도록 한다
+            String previousEmail = transactionTemplate.execute(status -> {
+                Optional<String> current = usersRepo.findEmailNormalizedByIdForUpdate(userId);
+                if (current.isEmpty() || usersRepo.patchUser(userId, patch.getVersion(),
+                        patch.getEmail(), OurUsers.normalizeEmail(patch.getEmail()),
+                        patch.getName(), patch.getCity(), patch.getRole(), encodedPassword) == 0) {
+                    return null;
+                }
+                UserView patched = usersRepo.findViewById(userId).orElseThrow();   // 같은 트랜잭션에서 올린 버전 (행 잠금을 잡고 있으므로 다른 수정과 겹치지 않는다)
+                userChangeLog.userUpdated(userId, patch.getEmail(), current.get(), patched.getVersion());   // 커밋되면 이전 역할이 담긴 토큰을 무효화 (stateless 인증 모드)
+                reqRes.setOurUsers(patched);
+                return current.get();
+            });
+
+            if (previousEmail != null) {
+                ourUserDetailsService.evict(previousEmail);   // 수정 전 / 후 이메일 키로 캐시에서 제거
+                ourUserDetailsService.evict(patch.getEmail());
+                registeredEmailFilter.add(patch.getEmail());
+                auditLog.record(AuditLog.USER_PATCHED, userId, fields);
+                reqRes.setStatusCode(200);
+                reqRes.setMessage("User updated successfully");
+            } else if (usersRepo.findVersionById(userId).isPresent()) {   // 실패한 경우에만 한 번 더 조회하여 원인을 구분
+                reqRes.setStatusCode(409);
+                reqRes.setMessage("User version " + patch.getVersion() + " is stale, reload and retry");
+            } else {
+                reqRes.setStatusCode(404);
+                reqRes.setMessage("User not found for update");
+            }
+        } catch (PasswordHashingRejectedException e) {
+            throw e;   // 해싱 대기열이 가득 찬 경우 503 으로 응답 (GlobalExceptionHandler)
+        } catch (DataIntegrityViolationException e) {
+            reqRes.setStatusCode(409);
+            reqRes.setMessage("Email already registered");   // 다른 사용자가 사용 중인 이메일로 변경 (유니크 인덱스에서 거부)
+        } catch (Exception e) {
+            reqRes.setStatusCode(500);
+            reqRes.setMessage("Error occurred while updating user: " + e.getMessage());
+        }
+        return reqRes;
+    }
+
+    // 감사 로그에 남길 변경된 필드 이름 (값, 특히 비밀번호는 남기지 않는다)
+    private static String patchedFields(UserPatchRequest patch) {
+        StringJoiner fields = new StringJoiner(",");
+        if (patch.getEmail() != null) {
+            fields.add("email");
+        }
+        if (patch.getName() != null) {
+            fields.add("name");
+        }
+        if (patch.getCity() != null) {
+            fields.add("city");
+        }
+        if (patch.getRole() != null) {
+            fields.add("role");
+        }
+        if (patch.getPassword() != null && !patch.getPassword().isEmpty()) {
+            fields.add("password");
+        }
+        return fields.toString();
+    }
+
+    /**
+     * 감사 로그 조회 (사용자 ID, 시간 범위는 선택)
+     */
+    public ReqRes getAuditEvents(Integer userId, Instant from, Instant to, Integer limit) {
+        ReqRes reqRes = new ReqRes();
+        try {
+            int max = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+            reqRes.setAuditEvents(auditLog.query(userId, from, to, max));
+            reqRes.setStatusCode(200);
+            reqRes.setMessage("Successful");
+        } catch (Exception e) {
+            reqRes.setStatusCode(500);
+            reqRes.setMessage("Error occurred while reading audit log: " + e.getMessage());
+        }
+        return reqRes;
+    }
+
+    /**
+     * 사용자 한 명의 ETag (ID + 버전), 사용자가 없으면 null
+     * 버전 컬럼만 조회하므로 If-None-Match 가 일치하면 사용자 정보를 조회하지 않고 304 로 응답할 수 있다.
+     */
+    public String getUserETag(Integer id) {
+        return usersRepo.findVersionById(id).map(version -> userETag(id, version)).orElse(null);
+    }
+
+    public String getMyInfoETag(String email) {
+        return usersRepo.findVersionByEmailNormalized(OurUsers.normalizeEmail(email))
+                .map(user -> userETag(user.getId(), user.getVersion())).orElse(null);
+    }
+
+    /**
+     * 사용자 목록의 ETag (변경 기록을 반영한 위치까지의 마지막 사용자 변경 seq)
+     * 사용자를 추가 / 수정 / 삭제하는 트랜잭션은 user_change_log 에 한 행씩 쓰므로, 모든 쓰기가 갱신하는 별도의 카운터 행 없이 메모리의 값으로 비교한다.
+     * 다른 인스턴스의 변경은 poll-interval-ms 안에 반영된다.
+     */
+    public String getUsersListETag() {
+        return "\"users-" + userChangeLog.usersVersion() + "\"";
+    }
+
+    public static String userETag(Integer id, Integer version) {
+        return "\"user-" + id + "-" + version + "\"";
+    }
+
     /**
      * 내 정보 조회
      */
+    @Transactional(readOnly = true)
     public ReqRes getMyInfo(String email){
         ReqRes reqRes = new ReqRes();
         try {
-            Optional<OurUsers> userOptional = usersRepo.findByEmail(email); // 제공된 이메일과 연관된 사용자를 검색
+            Optional<UserView> userOptional = usersRepo.findViewByEmailNormalized(OurUsers.normalizeEmail(email)); // 제공된 이메일과 연관된 사용자를 검색
             if (userOptional.isPresent()) {
                 reqRes.setOurUsers(userOptional.get());  // 사용자가 발견되면 사용자의 세부 정보를 응답에 설정
                 reqRes.setStatusCode(200);              // 사용자가 검색된 경우 성공 상태 코드 200을 설정
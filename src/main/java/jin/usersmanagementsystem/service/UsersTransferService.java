@@ -0,0 +1,398 @@
+package jin.usersmanagementsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.dto.UserTransferRow;
+import jin.usersmanagementsystem.entity.OurUsers;
+import jin.usersmanagementsystem.repository.UsersRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class UsersTransferService {
+
+    /**
+     * 사용자 테이블 전체 내보내기 / 가져오기 (CSV, NDJSON)
+     * 내보내기는 JDBC 커서(forward-only, 고정 fetch size)로 읽은 행을 객체로 모으지 않고 바로 버퍼링된 Writer 에 쓴다.
+     * (MySQL 은 JDBC URL 에 useCursorFetch=true 가 있어야 fetch size 단위로 가져오고, 없으면 결과 전체를 메모리에 올리므로 한 행씩 스트리밍한다)
+     * 가져오기는 요청 본문을 한 행씩 읽어 청크 단위로 비밀번호를 병렬 해싱하고, JDBC 배치 UPSERT (이메일 기준) 로 저장한다.
+     * 청크마다 저장과 진행 위치(user_import_checkpoint)를 한 트랜잭션으로 커밋하므로, 중단되면 같은 jobId 로 다시 보내 이어서 실행한다.
+     * 메모리는 행 수와 관계없이 청크 하나와 출력 버퍼만큼만 사용한다. (가져온 사용자의 ID 는 새로 정해진다)
+     */
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int MAX_IMPORT_CHUNK_SIZE = 10_000;
+    // MySQL 은 행 별칭 (as new_row) 으로 새 값을 참조한다 (VALUES(col) 은 MySQL 8.0.20 부터 deprecated, 행 별칭은 8.0.19 이상)
+    private static final String UPSERT_USER_SQL = "insert into ourusers (email, email_normalized, name, password, city, role) values (?, ?, ?, ?, ?, ?) as new_row"
+            + " on duplicate key update email = new_row.email, name = new_row.name, password = new_row.password,"
+            + " city = new_row.city, role = new_row.role, version = version + 1";
+    private static final String UPSERT_CHECKPOINT_SQL = "insert into user_import_checkpoint (job_id, committed_rows, updated_at) values (?, ?, current_timestamp) as new_row"
+            + " on duplicate key update committed_rows = new_row.committed_rows, updated_at = new_row.updated_at";
+    // 행 별칭을 지원하지 않는 DB (MariaDB, 테스트용 H2 MySQL 모드) 는 VALUES(col) 을 사용
+    private static final String UPSERT_USER_SQL_VALUES = "insert into ourusers (email, email_normalized, name, password, city, role) values (?, ?, ?, ?, ?, ?)"
+            + " on duplicate key update email = values(email), name = values(name), password = values(password),"
+            + " city = values(city), role = values(role), version = version + 1";
+    private static final String UPSERT_CHECKPOINT_SQL_VALUES = "insert into user_import_checkpoint (job_id, committed_rows, updated_at) values (?, ?, current_timestamp)"
+            + " on duplicate key update committed_rows = values(committed_rows), updated_at = values(updated_at)";
+
+    @Autowired
+    private UsersRepo usersRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private OurUserDetailsService ourUserDetailsService;
+
+    @Autowired
+    private UserChangeLog userChangeLog;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Value("${users.transfer.fetch-size:1000}")
+    private int fetchSize;             // 내보내기 커서가 한 번에 가져오는 행 수
+
+    @Value("${users.transfer.buffer-bytes:65536}")
+    private int bufferBytes;           // 내보내기 / 가져오기 문자 버퍼 크기
+
+    @Value("${users.transfer.import-chunk-size:1000}")
+    private int defaultChunkSize;      // 가져오기 커밋 단위 (요청의 chunkSize 로 바꿀 수 있다)
+
+    private TransactionTemplate readOnlyTransactionTemplate;   // 내보내기 (복제 DB 가 있으면 복제 DB 에서 읽는다)
+    private String upsertUserSql;
+    private String upsertCheckpointSql;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        boolean rowAlias = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> supportsRowAlias(connection.getMetaData())));
+        this.upsertUserSql = rowAlias ? UPSERT_USER_SQL : UPSERT_USER_SQL_VALUES;
+        this.upsertCheckpointSql = rowAlias ? UPSERT_CHECKPOINT_SQL : UPSERT_CHECKPOINT_SQL_VALUES;
+    }
+
+    // MySQL 8.0.19 이상 (MySQL 드라이버로 연결한 MariaDB 는 버전 문자열에 MariaDB 가 들어 있다)
+    private static boolean supportsRowAlias(DatabaseMetaData metaData) throws SQLException {
+        String version = metaData.getDatabaseProductVersion();
+        if (!"MySQL".equalsIgnoreCase(metaData.getDatabaseProductName()) || version == null || version.contains("MariaDB")) {
+            return false;
+        }
+        String[] parts = version.split("[^0-9]+");   // 8.0.35-log -> [8, 0, 35]
+        try {
+            int major = Integer.parseInt(parts[0]);
+            int minor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            int patch = parts.length > 2 ? Integer.parseInt(parts[2]) : 0;
+            return major > 8 || (major == 8 && (minor > 0 || patch >= 19));
+        } catch (NumberFormatException e) {
+            return false;   // 알 수 없는 버전 형식
+        }
+    }
+
+    public static boolean isSupportedFormat(String format) {
+        return FORMAT_CSV.equalsIgnoreCase(format) || FORMAT_NDJSON.equalsIgnoreCase(format);
+    }
+
+    /**
+     * 사용자 내보내기 (ID 순서, city / role 은 선택)
+     * includePasswordHash 이면 password 컬럼에 저장된 해시를 포함한다. (그대로 가져오려면 passwordsHashed=true)
+     */
+    public void export(String format, String city, String role, boolean includePasswordHash, OutputStream outputStream) throws IOException {
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select id, email, name, city, role, version")
+                .append(includePasswordHash ? ", password" : "").append(" from ourusers where 1 = 1");
+        if (city != null) {
+            sql.append(" and city = ?");
+            params.add(city);
+        }
+        if (role != null) {
+            sql.append(" and role = ?");
+            params.add(role);
+        }
+        sql.append(" order by id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), bufferBytes);
+        JsonGenerator generator = null;
+        if (!csv) {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);   // 행마다 Writer 를 flush 하지 않는다
+        }
+        RowCallbackHandler rowWriter = csv ? csvRowWriter(writer, includePasswordHash) : ndjsonRowWriter(generator, includePasswordHash);
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(exportFetchSize(connection));
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, rowWriter));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();   // 클라이언트 연결 종료 등 쓰기 오류
+        }
+        if (generator != null) {
+            generator.flush();
+        }
+        writer.flush();
+        auditLog.record(AuditLog.USERS_EXPORTED, null, "format=" + format.toLowerCase() + ", passwordHash=" + includePasswordHash);
+    }
+
+    // MySQL Connector/J 는 useCursorFetch=true 가 없으면 fetch size 를 무시하고 결과 전체를 읽어 오므로,
+    // 그 경우에는 Integer.MIN_VALUE 로 한 행씩 스트리밍한다 (스트리밍 중에는 같은 연결로 다른 쿼리를 실행하지 않는다)
+    private int exportFetchSize(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        if ("MySQL".equalsIgnoreCase(metaData.getDatabaseProductName())
+                && (metaData.getURL() == null || !metaData.getURL().contains("useCursorFetch=true"))) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+
+    private RowCallbackHandler csvRowWriter(Writer writer, boolean includePasswordHash) throws IOException {
+        writer.write(includePasswordHash ? "id,email,name,city,role,version,password\n" : "id,email,name,city,role,version\n");
+        return rs -> {
+            try {
+                writer.write(Integer.toString(rs.getInt("id")));
+                for (String column : new String[]{"email", "name", "city", "role"}) {
+                    writer.write(',');
+                    UserCsv.writeField(writer, rs.getString(column));
+                }
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt("version")));
+                if (includePasswordHash) {
+                    writer.write(',');
+                    UserCsv.writeField(writer, rs.getString("password"));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private RowCallbackHandler ndjsonRowWriter(JsonGenerator generator, boolean includePasswordHash) {
+        return rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getInt("id"));
+                generator.writeStringField("email", rs.getString("email"));
+                generator.writeStringField("name", rs.getString("name"));
+                generator.writeStringField("city", rs.getString("city"));
+                generator.writeStringField("role", rs.getString("role"));
+                generator.writeNumberField("version", rs.getInt("version"));
+                if (includePasswordHash) {
+                    generator.writeStringField("password", rs.getString("password"));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * 사용자 가져오기
+     * 이메일(정규화)이 같은 사용자가 있으면 이름 / 도시 / 역할 / 비밀번호를 덮어쓰고, 없으면 새로 만든다.
+     * passwordsHashed 이면 password 를 해시로 보고 그대로 저장한다. (내보내기의 includePasswordHash 결과)
+     * jobId 를 주면 해당 작업이 커밋한 행 수만큼 입력을 건너뛰고 이어서 가져온다.
+     */
+    public ReqRes importUsers(String format, InputStream input, boolean passwordsHashed, String jobId, Integer chunkSize) {
+        ReqRes resp = new ReqRes();
+        String job = jobId == null || jobId.isBlank() ? UUID.randomUUID().toString() : jobId.trim();
+        resp.setJobId(job);
+        if (!isSupportedFormat(format)) {
+            resp.setStatusCode(400);
+            resp.setMessage("format must be csv or ndjson");
+            return resp;
+        }
+        if (job.length() > 64) {
+            resp.setStatusCode(400);
+            resp.setMessage("jobId must be at most 64 characters");
+            return resp;
+        }
+        int size = chunkSize == null ? defaultChunkSize : Math.min(Math.max(chunkSize, 1), MAX_IMPORT_CHUNK_SIZE);
+
+        ImportProgress progress = new ImportProgress();
+        try {
+            progress.committedRows = findCheckpoint(job);
+            long resumedFrom = progress.committedRows;
+            Iterator<UserTransferRow> rows = FORMAT_CSV.equalsIgnoreCase(format)
+                    ? UserCsv.reader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), bufferBytes))
+                    : objectMapper.readerFor(UserTransferRow.class).readValues(input);
+            List<UserTransferRow> chunk = new ArrayList<>(size);
+            long position = 0;
+            while (rows.hasNext()) {
+                UserTransferRow row = rows.next();
+                if (++position <= resumedFrom) {
+                    continue;   // 이전 실행에서 이미 커밋된 행
+                }
+                chunk.add(row);
+                if (chunk.size() == size) {
+                    importChunk(job, chunk, position, passwordsHashed, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk, position, passwordsHashed, progress);
+            }
+            resp.setStatusCode(200);
+            resp.setMessage(progress.summary() + (resumedFrom > 0 ? ", resumed after row " + resumedFrom : ""));
+        } catch (IllegalArgumentException e) {
+            resp.setStatusCode(400);   // CSV 헤더 / 형식 오류, 숫자가 아닌 id 등 (이전 청크까지는 커밋됨)
+            resp.setMessage(progress.summary() + ", stopped after row " + progress.committedRows);
+            resp.setError(e.getMessage());
+        } catch (Exception e) {
+            resp.setStatusCode(500);
+            resp.setMessage(progress.summary() + ", stopped after row " + progress.committedRows + " (retry with the same jobId to resume)");
+            resp.setError(e.getMessage());
+        }
+        resp.setAffectedCount((int) (progress.created + progress.updated));
+        return resp;
+    }
+
+    private void importChunk(String job, List<UserTransferRow> chunk, long endPosition, boolean passwordsHashed, ImportProgress progress) {
+        // 1. 검증, 청크 안에서 같은 이메일은 마지막 행만 사용
+        Map<String, UserTransferRow> byEmail = new LinkedHashMap<>();
+        int skipped = 0;
+        for (UserTransferRow row : chunk) {
+            if (row.getEmail() == null || row.getEmail().isBlank() || row.getPassword() == null || row.getPassword().isEmpty()) {
+                skipped++;
+            } else if (byEmail.put(OurUsers.normalizeEmail(row.getEmail()), row) != null) {
+                skipped++;
+            }
+        }
+        List<String> emails = new ArrayList<>(byEmail.keySet());
+
+        // 2. 비밀번호 병렬 해싱 (해싱 대기열은 로그인과 함께 사용하므로 스레드 수 만큼씩 제출)
+        List<String> passwords = new ArrayList<>(emails.size());
+        if (passwordsHashed) {
+            byEmail.values().forEach(row -> passwords.add(row.getPassword()));
+        } else {
+            List<UserTransferRow> values = new ArrayList<>(byEmail.values());
+            int window = passwordHashingService.getPoolSize();
+            for (int from = 0; from < values.size(); from += window) {
+                List<CompletableFuture<String>> hashes = new ArrayList<>(window);
+                for (UserTransferRow row : values.subList(from, Math.min(from + window, values.size()))) {
+                    hashes.add(passwordHashingService.encodeAsync(row.getPassword()));
+                }
+                hashes.forEach(hash -> passwords.add(hash.join()));
+            }
+        }
+
+        // 3. 이미 있는 사용자 확인, UPSERT, 변경 기록, 진행 위치를 한 트랜잭션으로 커밋
+        List<Object[]> rows = new ArrayList<>(emails.size());
+        int n = 0;
+        for (Map.Entry<String, UserTransferRow> entry : byEmail.entrySet()) {
+            UserTransferRow row = entry.getValue();
+            rows.add(new Object[]{row.getEmail(), entry.getKey(), row.getName(), passwords.get(n++), row.getCity(), row.getRole()});
+        }
+        Map<String, Integer> existingIds = new HashMap<>();   // 정규화된 이메일 -> 덮어쓸 사용자 ID (캐시 / 토큰 무효화에 사용)
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!rows.isEmpty()) {
+                // 가입된 이메일 필터는 다른 인스턴스의 가입을 poll 한 뒤에야 알 수 있으므로 판단에 쓰지 않고, 청크의 모든 이메일을 잠그며 조회한다
+                // (없는 이메일도 유니크 인덱스 범위가 잠겨 커밋할 때까지 다른 트랜잭션이 같은 이메일로 가입하지 못한다)
+                namedParameterJdbcTemplate.query("select id, email_normalized from ourusers where email_normalized in (:emails) for update",
+                        Map.of("emails", emails), rs -> {
+                            existingIds.put(rs.getString("email_normalized"), rs.getInt("id"));
+                        });
+                jdbcTemplate.batchUpdate(upsertUserSql, rows);
+                if (!existingIds.isEmpty()) {
+                    List<UserChangeLog.UpdatedUser> updatedUsers = new ArrayList<>();   // UPSERT 로 올라간 버전 (같은 트랜잭션에서 조회)
+                    namedParameterJdbcTemplate.query("select id, email_normalized, version from ourusers where id in (:ids)",
+                            Map.of("ids", existingIds.values()), rs -> {
+                                String email = rs.getString("email_normalized");   // 이메일로 UPSERT 하므로 수정 전 / 후 이메일이 같다
+                                updatedUsers.add(new UserChangeLog.UpdatedUser(rs.getInt("id"), email, email, rs.getInt("version")));
+                            });
+                    userChangeLog.usersUpdated(updatedUsers);   // 커밋되면 덮어쓴 사용자의 토큰을 무효화
+                }
+                userChangeLog.usersCreated(byEmail.entrySet().stream()
+                        .filter(entry -> !existingIds.containsKey(entry.getKey())).map(entry -> entry.getValue().getEmail()).toList());
+            }
+            jdbcTemplate.update(upsertCheckpointSql, job, endPosition);
+        });
+        progress.committedRows = endPosition;
+
+        // 4. 커밋 후 반영 (덮어쓴 사용자는 이전 역할 / 비밀번호의 캐시를 비운다)
+        existingIds.keySet().forEach(ourUserDetailsService::evict);   // 정규화된 이메일 키로 바로 제거
+        for (Map.Entry<String, UserTransferRow> entry : byEmail.entrySet()) {
+            registeredEmailFilter.add(entry.getValue().getEmail());
+            Integer id = existingIds.get(entry.getKey());
+            if (id != null) {
+                auditLog.record(AuditLog.USER_UPDATED, id, "import " + job);
+            } else {
+                auditLog.record(AuditLog.USER_REGISTERED, null, entry.getValue().getEmail());
+            }
+        }
+        progress.updated += existingIds.size();
+        progress.created += byEmail.size() - existingIds.size();
+        progress.skipped += skipped;
+    }
+
+    private long findCheckpoint(String job) {
+        List<Long> committed = jdbcTemplate.queryForList("select committed_rows from user_import_checkpoint where job_id = ?", Long.class, job);
+        return committed.isEmpty() ? 0 : committed.get(0);
+    }
+
+    // 가져오기 진행 상황 (커밋된 청크까지)
+    private static final class ImportProgress {
+        private long committedRows;   // 처리한 입력 행 수 (건너뛴 행 포함)
+        private long created;
+        private long updated;
+        private long skipped;         // 이메일 / 비밀번호 누락, 청크 안에서 중복된 이메일
+
+        private String summary() {
+            return created + " users created, " + updated + " updated, " + skipped + " skipped";
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- 사용자 검색 복합 인덱스
+-- 역할 + 도시: 두 조건을 함께 주면 단일 컬럼 인덱스 하나로 읽은 뒤 나머지 조건을 거르지 않고 바로 범위 조회 (ID 순서는 InnoDB 가 붙이는 PK 로 유지)
+-- 도시 + 이름: 도시와 이름 앞부분을 함께 주면 (이름, ID) 순서 그대로 읽고 limit 건에서 멈춘다
+-- 이름 / 정규화된 이메일 앞부분만 주면 V5 의 이름 인덱스 ((이름, PK)) / V2 의 이메일 유니크 인덱스 순서로 읽는다
+CREATE INDEX idx_ourusers_role_city ON ourusers (role, city);
+CREATE INDEX idx_ourusers_city_name ON ourusers (city, name);
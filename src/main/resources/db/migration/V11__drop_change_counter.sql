@@ -0,0 +1,6 @@
+-- 사용자 목록 ETag 를 변경 카운터 대신 user_change_log 의 마지막 사용자 변경 seq 로 계산
+-- 모든 사용자 변경 트랜잭션이 카운터 한 행을 갱신하여 쓰기가 그 행의 잠금에서 한 줄로 처리되던 문제를 없앤다.
+-- 유형별 마지막 seq 를 인덱스 끝 한 건으로 읽도록 (change_type, seq) 인덱스를 추가 (토큰 폐기 기록이 많아도 건너뛰지 않는다)
+CREATE INDEX idx_user_change_log_type_seq ON user_change_log (change_type, seq);
+
+DROP TABLE ourusers_change_counter;
@@ -0,0 +1,11 @@
+-- 기준 스키마 (기존에 Hibernate 가 만든 ourusers 테이블과 같은 구조)
+-- 이미 테이블이 있는 DB 는 FlywayConfig 의 baselineOnMigrate 로 이 버전을 건너뛴다.
+CREATE TABLE IF NOT EXISTS ourusers (
+    id       INT          NOT NULL AUTO_INCREMENT,
+    email    VARCHAR(255),
+    name     VARCHAR(255),
+    password VARCHAR(255),
+    city     VARCHAR(255),
+    role     VARCHAR(255),
+    PRIMARY KEY (id)
+);
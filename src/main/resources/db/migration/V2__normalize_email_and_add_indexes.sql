@@ -0,0 +1,10 @@
+-- 정규화된(소문자, 앞뒤 공백 제거) 이메일 컬럼과 유니크 인덱스, 역할 / 도시 보조 인덱스
+-- 이메일이 대소문자만 다른 중복 사용자가 있으면 유니크 인덱스 생성이 실패하므로 먼저 정리해야 한다.
+--   SELECT LOWER(TRIM(email)), COUNT(*) FROM ourusers GROUP BY LOWER(TRIM(email)) HAVING COUNT(*) > 1;
+ALTER TABLE ourusers ADD COLUMN email_normalized VARCHAR(255);
+
+UPDATE ourusers SET email_normalized = LOWER(TRIM(email));
+
+CREATE UNIQUE INDEX ux_ourusers_email_normalized ON ourusers (email_normalized);
+CREATE INDEX idx_ourusers_role ON ourusers (role);
+CREATE INDEX idx_ourusers_city ON ourusers (city);
@@ -0,0 +1,2 @@
+-- 낙관적 잠금(@Version) 컬럼, 수정할 때마다 1 씩 증가
+ALTER TABLE ourusers ADD COLUMN version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- 사용자 테이블 변경 카운터 (목록 조회 ETag 용)
+-- 사용자를 추가 / 수정 / 삭제하는 트랜잭션 안에서 1 씩 증가시킨다.
+CREATE TABLE ourusers_change_counter (
+    id      INT    NOT NULL,
+    counter BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO ourusers_change_counter (id, counter) VALUES (1, 0);
@@ -0,0 +1,3 @@
+-- 사용자 검색 (이름 앞부분 일치)
+-- 역할 / 도시 / 정규화된 이메일 인덱스는 V2 에서 생성 (InnoDB 보조 인덱스는 PK 를 포함하므로 조건 + ID 순서 조회에 그대로 사용)
+CREATE INDEX idx_ourusers_name ON ourusers (name);
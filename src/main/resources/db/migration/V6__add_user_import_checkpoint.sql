@@ -0,0 +1,8 @@
+-- 사용자 가져오기(import) 진행 위치
+-- 청크를 저장하는 트랜잭션 안에서 처리한 입력 행 수를 함께 기록하여, 중단된 가져오기를 같은 job_id 로 이어서 실행할 수 있다.
+CREATE TABLE user_import_checkpoint (
+    job_id         VARCHAR(64) NOT NULL,
+    committed_rows BIGINT      NOT NULL,
+    updated_at     TIMESTAMP   NOT NULL,
+    PRIMARY KEY (job_id)
+);
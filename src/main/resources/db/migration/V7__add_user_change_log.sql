@@ -0,0 +1,17 @@
+-- 사용자 / 토큰 변경 기록 (여러 인스턴스의 캐시 동기화용)
+-- 사용자를 추가 / 수정 / 삭제하는 트랜잭션 안에서 한 행씩 추가하고, 각 인스턴스가 seq 순서로 읽어 자신의 캐시에 반영한다.
+-- created_at / token_expires_at 은 epoch 밀리초
+CREATE TABLE user_change_log (
+    seq              BIGINT      NOT NULL AUTO_INCREMENT,
+    change_type      VARCHAR(32) NOT NULL,
+    user_id          INT,
+    email            VARCHAR(255),
+    token_version    INT,
+    token_id         VARCHAR(64),
+    token_expires_at BIGINT,
+    origin           VARCHAR(36) NOT NULL,
+    created_at       BIGINT      NOT NULL,
+    PRIMARY KEY (seq)
+);
+
+CREATE INDEX idx_user_change_log_created_at ON user_change_log (created_at);
@@ -0,0 +1,3 @@
+-- 폐기한 토큰(jti)은 한 번만 기록된다. 여러 인스턴스에서 같은 refreshToken 을 동시에 사용해도 INSERT 에 성공한 요청만 새 토큰을 받는다.
+-- 토큰 폐기 외의 기록은 token_id 가 NULL 이므로 유니크 검사 대상이 아니다.
+CREATE UNIQUE INDEX ux_user_change_log_token_id ON user_change_log (token_id);
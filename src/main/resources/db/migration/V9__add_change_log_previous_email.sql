@@ -0,0 +1,2 @@
+-- 사용자 수정 전 이메일 (이메일이 바뀐 경우 다른 인스턴스가 이전 이메일 키의 캐시도 바로 제거할 수 있도록)
+ALTER TABLE user_change_log ADD COLUMN previous_email VARCHAR(255);
@@ -3,7 +3,7 @@ package jin.usersmanagementsystem;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "audit.enabled=false")   // 저장소 안에 감사 로그 세그먼트를 만들지 않는다
 class UsersmanagementsystemApplicationTests {
 
     @Test
@@ -0,0 +1,91 @@
+package jin.usersmanagementsystem.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AIMD 한도 조절: 빠른 응답은 1/limit 씩 올리고, 느린 응답 / 과부하는 10% 줄인다 (목표 100ms)
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void requestsOverTheLimitAreRejected() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 12, 100);
+
+        acquire(limiter, 10);
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+
+        limiter.release(FAST, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void fastResponsesUnderLoadGrowTheLimitByOneOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 12, 100);
+        acquire(limiter, 10);
+
+        for (int i = 0; i < 10; i++) {   // 10.1, 10.199, ... 10.959
+            limiter.release(FAST, false);
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        limiter.release(FAST, false);    // 11.05
+        assertThat(limiter.getLimit()).isEqualTo(11);
+        acquire(limiter, 2);
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void slowOrOverloadedResponsesBackOff() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 12, 100);
+        acquire(limiter, 3);
+
+        limiter.release(SLOW, false);    // 9.0
+        assertThat(limiter.getLimit()).isEqualTo(9);
+        limiter.release(FAST, true);     // 8.1
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void limitStaysWithinMinAndMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 12, 2, 12, 100);
+        acquire(limiter, 12);
+        limiter.release(FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(12);
+
+        for (int i = 0; i < 11; i++) {
+            limiter.release(SLOW, false);
+        }
+        for (int i = 0; i < 30; i++) {
+            acquire(limiter, 1);
+            limiter.release(SLOW, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void idleTrafficDoesNotGrowTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 12, 100);
+
+        for (int i = 0; i < 100; i++) {   // 한도의 절반 미만 사용
+            acquire(limiter, 1);
+            limiter.release(FAST, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static void acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+}
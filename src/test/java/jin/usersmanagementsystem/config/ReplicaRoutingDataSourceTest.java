@@ -0,0 +1,130 @@
+package jin.usersmanagementsystem.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 읽기 전용 트랜잭션 라우팅 (주 DB / 복제 DB 를 각각 H2 메모리 DB 로 구성)
+ * 각 DB 의 db_role 테이블에 저장된 이름으로 어느 DB 에서 실행되었는지 확인한다.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing_primary", "primary");
+        DataSource replica = database("routing_replica", "replica");
+        use(new ReplicaRoutingDataSource(primary, replica, 30_000));
+    }
+
+    @AfterEach
+    void clearContext() {
+        ReadYourWritesContext.clear();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertThat(readOnly.<String>execute(status -> currentDatabase())).isEqualTo("replica");
+        assertThat(readWrite.<String>execute(status -> currentDatabase())).isEqualTo("primary");
+    }
+
+    @Test
+    void readsAfterWriteInSameRequestUsePrimary() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update db_role set name = name"));
+
+        assertThat(readOnly.<String>execute(status -> currentDatabase())).isEqualTo("primary");
+
+        ReadYourWritesContext.clear();   // 다음 요청 (ReadYourWritesFilter)
+        assertThat(readOnly.<String>execute(status -> currentDatabase())).isEqualTo("replica");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsUnavailable() {
+        DataSource primary = database("routing_primary_fallback", "primary");
+        DataSource unavailable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/routing_missing", "sa", "");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, unavailable, 30_000);
+        use(routing);
+
+        assertThat(readOnly.<String>execute(status -> currentDatabase())).isEqualTo("primary");
+        assertThat(routing.isReplicaAvailable()).isFalse();
+    }
+
+    @Test
+    void jpaReadOnlyTransactionUsesReplicaAndOnPrimaryOverridesIt() {
+        // JpaTransactionManager 는 트랜잭션 시작 시 커넥션을 준비하므로, LazyConnectionDataSourceProxy 없이는 읽기 전용 여부를 알기 전에 주 DB 로 연결된다
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                database("routing_jpa_primary", "primary"), database("routing_jpa_replica", "replica"), 30_000));
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("jin.usersmanagementsystem.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        try {
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+            JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+            TransactionTemplate jpaReadOnly = new TransactionTemplate(transactionManager);
+            jpaReadOnly.setReadOnly(true);
+            TransactionTemplate jpaReadWrite = new TransactionTemplate(transactionManager);
+
+            assertThat(jpaReadOnly.<String>execute(status -> currentDatabase(entityManager))).isEqualTo("replica");
+
+            // 캐시에 저장할 사용자 정보 조회 (OurUserDetailsService) 는 읽기 전용이어도 주 DB 에서 읽는다
+            assertThat(ReadYourWritesContext.<String>onPrimary(() -> jpaReadOnly.<String>execute(status -> currentDatabase(entityManager)))).isEqualTo("primary");
+            assertThat(ReadYourWritesContext.isPrimaryOnly()).isFalse();   // 이후 요청의 읽기에는 영향 없음
+            assertThat(jpaReadOnly.<String>execute(status -> currentDatabase(entityManager))).isEqualTo("replica");
+
+            jpaReadWrite.executeWithoutResult(status -> entityManager.createNativeQuery("update db_role set name = name").executeUpdate());
+            assertThat(jpaReadOnly.<String>execute(status -> currentDatabase(entityManager))).isEqualTo("primary");
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    private void use(ReplicaRoutingDataSource routing) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select name from db_role", String.class);
+    }
+
+    private static String currentDatabase(EntityManager entityManager) {
+        return (String) entityManager.createNativeQuery("select name from db_role").getSingleResult();
+    }
+
+    private static DataSource database(String name, String role) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists db_role (name varchar(20))");
+        jdbcTemplate.update("delete from db_role");
+        jdbcTemplate.update("insert into db_role (name) values (?)", role);
+        return dataSource;
+    }
+}
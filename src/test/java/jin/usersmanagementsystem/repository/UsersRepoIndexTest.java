@@ -0,0 +1,77 @@
+package jin.usersmanagementsystem.repository;
+
+import jin.usersmanagementsystem.entity.OurUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 정규화된 이메일 조회가 유니크 인덱스를 사용하는지 확인 (H2 MySQL 모드 + Flyway 마이그레이션)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:users_index_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "security.password.bcrypt.cost=4",
+        "audit.enabled=false"
+})
+class UsersRepoIndexTest {
+
+    private static final int SEEDED_USERS = 100_000;
+
+    @Autowired
+    private UsersRepo usersRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ourusers", Integer.class);
+        if (count != null && count >= SEEDED_USERS) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 1; i <= SEEDED_USERS; i++) {
+            String email = "User" + i + "@Example.com";
+            rows.add(new Object[]{email, OurUsers.normalizeEmail(email), "User " + i, "hash", i % 2 == 0 ? "Seoul" : "Busan", i % 100 == 0 ? "ADMIN" : "USER"});
+            if (rows.size() == 10_000) {
+                insert(rows);
+                rows.clear();
+            }
+        }
+        insert(rows);
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO ourusers (email, email_normalized, name, password, city, role) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    @Test
+    void emailLookupUsesUniqueIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM ourusers WHERE email_normalized = 'user77777@example.com'", String.class);
+
+        assertThat(plan).containsIgnoringCase("ux_ourusers_email_normalized");
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void findByEmailIgnoresCaseAndSurroundingSpaces() {
+        Optional<OurUsers> user = usersRepo.findByEmail("  USER77777@example.COM ");
+
+        assertThat(user).isPresent();
+        assertThat(user.get().getEmail()).isEqualTo("User77777@Example.com");
+    }
+}
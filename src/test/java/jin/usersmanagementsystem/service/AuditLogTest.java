@@ -0,0 +1,151 @@
+package jin.usersmanagementsystem.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jin.usersmanagementsystem.dto.AuditEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 감사 로그 기록 / 조회 / 재시작 후 이어 쓰기 (작은 세그먼트로 세그먼트 교체까지 확인)
+ */
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditLog auditLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        auditLog.stop();
+    }
+
+    @Test
+    void queriesByUserIdAndTimeRangeAcrossSegments() throws Exception {
+        auditLog = start();
+        Instant before = Instant.now();
+        for (int i = 0; i < 200; i++) {
+            auditLog.record(AuditLog.USER_UPDATED, i % 4, "user" + i + "@example.com");
+        }
+        awaitWritten(200);
+
+        List<AuditEvent> events = auditLog.query(1, before, Instant.now(), 1000);
+        assertThat(events).hasSize(50).allMatch(event -> event.getUserId() == 1);
+        assertThat(events.get(0).getDetail()).isEqualTo("user1@example.com");
+        assertThat(auditLog.query(null, null, null, 10)).hasSize(10);
+        assertThat(auditLog.query(null, Instant.now().plusSeconds(60), null, 10)).isEmpty();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isGreaterThan(1);   // 4KB 세그먼트를 넘겨 다음 세그먼트로 교체됨
+        }
+    }
+
+    @Test
+    void appendsAfterRestart() throws Exception {
+        auditLog = start();
+        auditLog.record(AuditLog.USER_REGISTERED, 7, "a@example.com");
+        awaitWritten(1);
+        auditLog.stop();
+
+        auditLog = start();
+        assertThat(auditLog.query(7, null, null, 10)).hasSize(1);
+        auditLog.record(AuditLog.USER_DELETED, 7, null);
+        awaitWritten(2);
+
+        List<AuditEvent> events = auditLog.query(7, null, null, 10);
+        assertThat(events).extracting(AuditEvent::getAction).containsExactly(AuditLog.USER_REGISTERED, AuditLog.USER_DELETED);
+        assertThat(events.get(1).getDetail()).isNull();
+    }
+
+    @Test
+    void recoveryStopsAtRecordWithZeroFilledPayload() throws Exception {
+        auditLog = start();
+        auditLog.record(AuditLog.USER_REGISTERED, 7, "a@example.com");
+        auditLog.record(AuditLog.USER_UPDATED, 7, "b@example.com");
+        awaitWritten(2);
+        auditLog.stop();
+
+        // 길이는 기록되었지만 내용은 디스크에 반영되지 않은 채 종료된 경우 (두 번째 기록의 내용을 0 으로 채운다)
+        Path segment = directory.resolve(String.format("audit-%020d.log", 0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 0);
+            int second = 4 + header.flip().getInt();
+            header.clear();
+            channel.read(header, second);
+            int secondLength = header.flip().getInt();
+            channel.write(ByteBuffer.allocate(secondLength - 4), second + 8);   // CRC 뒤의 내용
+        }
+
+        auditLog = start();
+        assertThat(auditLog.query(7, null, null, 10)).extracting(AuditEvent::getDetail).containsExactly("a@example.com");
+        auditLog.record(AuditLog.USER_DELETED, 7, null);   // 손상된 기록 위치부터 이어 쓴다
+        awaitWritten(2);
+        assertThat(auditLog.query(7, null, null, 10)).extracting(AuditEvent::getAction)
+                .containsExactly(AuditLog.USER_REGISTERED, AuditLog.USER_DELETED);
+    }
+
+    @Test
+    void deletesSegmentsOlderThanTheRetention() throws Exception {
+        auditLog = start();
+        for (int i = 0; i < 200; i++) {
+            auditLog.record(AuditLog.USER_UPDATED, 1, "user" + i + "@example.com");
+        }
+        awaitWritten(200);
+        auditLog.stop();
+        long segmentsBefore;
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentsBefore = files.count();
+        }
+
+        // 이틀 뒤 보관 기간 1일로 다시 시작하면 쓰기 중인 마지막 세그먼트만 남는다
+        long twoDaysLater = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(2);
+        auditLog = start(1, () -> twoDaysLater);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(1).isLessThan(segmentsBefore);
+        }
+        assertThat(auditLog.query(1, null, null, 1000)).hasSizeLessThan(200);
+    }
+
+    private AuditLog start() {
+        return start(0, System::currentTimeMillis);
+    }
+
+    private AuditLog start(long retentionDays, LongSupplier clock) {
+        AuditLog log = new AuditLog();
+        ReflectionTestUtils.setField(log, "retentionDays", retentionDays);
+        ReflectionTestUtils.setField(log, "clock", clock);
+        ReflectionTestUtils.setField(log, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(log, "enabled", true);
+        ReflectionTestUtils.setField(log, "directory", directory.toString());
+        ReflectionTestUtils.setField(log, "segmentSizeBytes", 4096);
+        ReflectionTestUtils.setField(log, "bufferCapacity", 1024);
+        ReflectionTestUtils.setField(log, "batchSize", 64);
+        ReflectionTestUtils.setField(log, "fsyncIntervalMs", 10L);
+        ReflectionTestUtils.setField(log, "idleParkMicros", 100L);
+        log.start();
+        return log;
+    }
+
+    // 쓰기 스레드가 기록할 때까지 대기
+    private void awaitWritten(int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (auditLog.query(null, null, null, count).size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
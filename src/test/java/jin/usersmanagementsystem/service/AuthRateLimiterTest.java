@@ -0,0 +1,115 @@
+package jin.usersmanagementsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+/**
+ * GCRA 버킷의 버스트 / 채워짐 / Retry-After 올림과 로그인 실패 한도의 키 (분당 6회, 버스트 5 = 10초에 하나씩 채워짐)
+ */
+class AuthRateLimiterTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toNanos(1));   // 고정 시계 (직접 진행시킨다)
+
+    @Test
+    void burstIsAllowedAndTheNextRequestWaitsOneInterval() {
+        AuthRateLimiter.TokenBuckets buckets = new AuthRateLimiter.TokenBuckets(1, 6, 5, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(buckets.tryAcquire("key")).isZero();
+        }
+        assertThat(buckets.waitNanos("key")).isEqualTo(INTERVAL_NANOS);
+        assertThat(buckets.tryAcquire("key")).isEqualTo(INTERVAL_NANOS);
+        assertThat(buckets.tryAcquire("key")).isEqualTo(INTERVAL_NANOS);   // 거부된 요청은 상태를 바꾸지 않는다
+    }
+
+    @Test
+    void oneTokenIsRefilledPerInterval() {
+        AuthRateLimiter.TokenBuckets buckets = new AuthRateLimiter.TokenBuckets(1, 6, 5, clock::get);
+        for (int i = 0; i < 5; i++) {
+            buckets.tryAcquire("key");
+        }
+
+        clock.addAndGet(INTERVAL_NANOS - 1);
+        assertThat(buckets.tryAcquire("key")).isEqualTo(1);
+
+        clock.addAndGet(1);
+        assertThat(buckets.tryAcquire("key")).isZero();
+        assertThat(buckets.tryAcquire("key")).isEqualTo(INTERVAL_NANOS);
+
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));   // 오래 쉬어도 버스트 이상은 쌓이지 않는다
+        for (int i = 0; i < 5; i++) {
+            assertThat(buckets.tryAcquire("key")).isZero();
+        }
+        assertThat(buckets.tryAcquire("key")).isEqualTo(INTERVAL_NANOS);
+    }
+
+    @Test
+    void waitNanosDoesNotConsume() {
+        AuthRateLimiter.TokenBuckets buckets = new AuthRateLimiter.TokenBuckets(1, 6, 1, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.waitNanos("key")).isZero();
+        }
+        assertThat(buckets.tryAcquire("key")).isZero();
+        assertThat(buckets.waitNanos("key")).isEqualTo(INTERVAL_NANOS);
+    }
+
+    @Test
+    void retryAfterIsRoundedUpToWholeSeconds() {
+        assertThat(AuthRateLimiter.toRetryAfterSeconds(0)).isEqualTo(1);
+        assertThat(AuthRateLimiter.toRetryAfterSeconds(1)).isEqualTo(1);
+        assertThat(AuthRateLimiter.toRetryAfterSeconds(1_000_000_000L)).isEqualTo(1);
+        assertThat(AuthRateLimiter.toRetryAfterSeconds(1_000_000_001L)).isEqualTo(2);
+        assertThat(AuthRateLimiter.toRetryAfterSeconds(INTERVAL_NANOS)).isEqualTo(10);
+    }
+
+    @Test
+    void onlyFailedLoginsFromTheSameIpAreLimited() {
+        AuthRateLimiter limiter = limiter();
+        for (int i = 0; i < 10; i++) {
+            limiter.checkLogin("User@Example.com", "10.0.0.1");   // 확인만으로는 차감되지 않는다
+        }
+        for (int i = 0; i < 5; i++) {
+            limiter.recordLoginFailure("user@example.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> limiter.checkLogin("USER@example.com", "10.0.0.1"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatNoException().isThrownBy(() -> limiter.checkLogin("user@example.com", "10.0.0.2"));   // 다른 곳의 계정 주인은 막히지 않는다
+        assertThatNoException().isThrownBy(() -> limiter.checkLogin("other@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void failuresSpreadOverManyIpsHitTheLargerPerEmailLimit() {
+        AuthRateLimiter limiter = limiter();
+        for (int i = 0; i < 50; i++) {
+            limiter.recordLoginFailure("target@example.com", "10.1.0." + i);   // IP 마다 한 번씩
+        }
+
+        assertThatThrownBy(() -> limiter.checkLogin("target@example.com", "10.2.0.1"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatNoException().isThrownBy(() -> limiter.checkLogin("other@example.com", "10.1.0.1"));
+    }
+
+    private static AuthRateLimiter limiter() {
+        AuthRateLimiter limiter = new AuthRateLimiter();
+        ReflectionTestUtils.setField(limiter, "stripes", 65536);
+        ReflectionTestUtils.setField(limiter, "ipPerMinute", 600L);
+        ReflectionTestUtils.setField(limiter, "ipBurst", 20L);
+        ReflectionTestUtils.setField(limiter, "emailIpPerMinute", 6L);
+        ReflectionTestUtils.setField(limiter, "emailIpBurst", 5L);
+        ReflectionTestUtils.setField(limiter, "emailPerMinute", 30L);
+        ReflectionTestUtils.setField(limiter, "emailBurst", 50L);
+        limiter.init();
+        return limiter;
+    }
+}
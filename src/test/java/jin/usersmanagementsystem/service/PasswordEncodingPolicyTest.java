@@ -0,0 +1,55 @@
+package jin.usersmanagementsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 다시 해싱할 해시: 약한 cost 는 항상, 비싼 cost 는 cost 를 설정값으로 고정한 경우에만
+ */
+class PasswordEncodingPolicyTest {
+
+    private static final String COST_4 = "{bcrypt}$2a$04$abcdefghijklmnopqrstuu5s2v8.iXieOjg/.AySBTTZIIVFJeBui";
+    private static final String COST_5 = "{bcrypt}$2a$05$abcdefghijklmnopqrstuu5s2v8.iXieOjg/.AySBTTZIIVFJeBui";
+    private static final String COST_6 = "{bcrypt}$2a$06$abcdefghijklmnopqrstuu5s2v8.iXieOjg/.AySBTTZIIVFJeBui";
+
+    @Test
+    void fixedCostRehashesWeakerAndMoreExpensiveHashes() {
+        PasswordEncodingPolicy policy = policy(5, 4, 4);
+
+        assertThat(policy.needsRehash(COST_4)).isTrue();
+        assertThat(policy.needsRehash(COST_5)).isFalse();
+        assertThat(policy.needsRehash(COST_6)).isTrue();   // 운영자가 cost 를 낮춘 경우
+    }
+
+    @Test
+    void tunedCostOnlyUpgrades() {
+        PasswordEncodingPolicy policy = policy(0, 5, 5);   // min = max 이므로 측정과 관계없이 5
+
+        assertThat(policy.getTargetCost()).isEqualTo(5);
+        assertThat(policy.needsRehash(COST_4)).isTrue();
+        assertThat(policy.needsRehash(COST_5)).isFalse();
+        assertThat(policy.needsRehash(COST_6)).isFalse();  // 다른 노드가 더 높은 cost 를 선택한 해시
+    }
+
+    @Test
+    void otherFormatsAreRehashed() {
+        PasswordEncodingPolicy policy = policy(5, 4, 4);
+
+        assertThat(policy.needsRehash("$2a$05$abcdefghijklmnopqrstuu5s2v8.iXieOjg/.AySBTTZIIVFJeBui")).isTrue();   // 접두사 없는 기존 형식
+        assertThat(policy.needsRehash("{pbkdf2@SpringSecurity_v5_8}abcdef")).isTrue();
+        assertThat(policy.needsRehash("{bcrypt}broken")).isTrue();
+        assertThat(policy.needsRehash(null)).isTrue();
+    }
+
+    private static PasswordEncodingPolicy policy(int fixedCost, int minCost, int maxCost) {
+        PasswordEncodingPolicy policy = new PasswordEncodingPolicy();
+        ReflectionTestUtils.setField(policy, "fixedCost", fixedCost);
+        ReflectionTestUtils.setField(policy, "targetLatencyMillis", 60_000L);
+        ReflectionTestUtils.setField(policy, "minCost", minCost);
+        ReflectionTestUtils.setField(policy, "maxCost", maxCost);
+        policy.init();
+        return policy;
+    }
+}
@@ -0,0 +1,139 @@
+package jin.usersmanagementsystem.service;
+
+import io.jsonwebtoken.Claims;
+import jin.usersmanagementsystem.dto.ReqRes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * refreshToken 은 한 번만 사용할 수 있다 (사용할 때마다 새 refreshToken 발급, 동시에 재사용해도 하나만 성공)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh_token_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "security.password.bcrypt.cost=4",
+        "audit.enabled=false"
+})
+class RefreshTokenRotationTest {
+
+    private static final String EMAIL = "refresh@example.com";
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private UsersManagementService usersManagementService;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private UserChangeLog userChangeLog;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void registerUser() {
+        ReqRes registration = new ReqRes();
+        registration.setEmail(EMAIL);
+        registration.setPassword(PASSWORD);
+        registration.setName("Refresh");
+        registration.setCity("Seoul");
+        registration.setRole("USER");
+        usersManagementService.register(registration, "127.0.0.1");   // 이미 가입되어 있으면 409
+    }
+
+    @Test
+    void refreshTokenRotatesAndCannotBeReused() {
+        String refreshToken = login().getRefreshToken();
+
+        ReqRes first = refresh(refreshToken);
+        assertThat(first.getStatusCode()).isEqualTo(200);
+        assertThat(first.getRefreshToken()).isNotEqualTo(refreshToken);
+        assertThat(first.getExpirationTime()).isEqualTo("24Hrs");
+
+        assertThat(refresh(refreshToken).getStatusCode()).isEqualTo(401);              // 이미 사용한 토큰
+        assertThat(refresh(first.getRefreshToken()).getStatusCode()).isEqualTo(200);   // 새로 받은 토큰은 사용 가능
+        assertThat(refresh(first.getToken()).getStatusCode()).isEqualTo(401);          // access 토큰은 받지 않는다
+    }
+
+    @Test
+    void concurrentReuseSucceedsOnlyOnce() throws Exception {
+        String refreshToken = login().getRefreshToken();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ReqRes>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return refresh(refreshToken);
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<ReqRes> result : results) {
+                if (result.get().getStatusCode() == 200) {
+                    succeeded++;
+                }
+            }
+            assertThat(succeeded).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reuseOnAnotherInstanceIsRejectedByTheChangeLog() {
+        String refreshToken = login().getRefreshToken();
+        Claims claims = jwtUtils.extractAllClaims(refreshToken);
+
+        assertThat(userChangeLog.tokenRevoked(claims.getId(), claims.getExpiration())).isTrue();   // 다른 인스턴스가 먼저 사용 (이 인스턴스의 폐기 목록에는 아직 없음)
+        assertThat(tokenDenylist.isRevoked(claims.getId(), claims.getExpiration())).isFalse();
+
+        assertThat(refresh(refreshToken).getStatusCode()).isEqualTo(401);
+        assertThat(userChangeLog.tokenRevoked(claims.getId(), claims.getExpiration())).isFalse();
+    }
+
+    @Test
+    void refreshForADeletedUserIsRejected() {
+        String refreshToken = login().getRefreshToken();
+        jdbcTemplate.update("delete from ourusers where email_normalized = ?", EMAIL);   // 다른 인스턴스에서 삭제 (이 인스턴스에는 아직 반영되지 않음)
+
+        ReqRes response = refresh(refreshToken);
+        assertThat(response.getStatusCode()).isEqualTo(401);
+        assertThat(response.getMessage()).isEqualTo("Invalid refresh token");
+    }
+
+    private ReqRes login() {
+        ReqRes request = new ReqRes();
+        request.setEmail(EMAIL);
+        request.setPassword(PASSWORD);
+        ReqRes response = usersManagementService.login(request, "127.0.0.1");
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        return response;
+    }
+
+    private ReqRes refresh(String refreshToken) {
+        ReqRes request = new ReqRes();
+        request.setToken(refreshToken);
+        return usersManagementService.refreshToken(request);
+    }
+}
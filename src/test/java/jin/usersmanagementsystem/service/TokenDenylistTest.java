@@ -0,0 +1,73 @@
+package jin.usersmanagementsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 폐기 목록의 버킷 조회 / 중복 폐기 / 만료된 버킷 삭제 경계 (버킷 구간 60분)
+ */
+class TokenDenylistTest {
+
+    private static final long BUCKET_MILLIS = 60 * 60_000L;
+
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        denylist = new TokenDenylist();
+        ReflectionTestUtils.setField(denylist, "bucketMinutes", 60L);
+        ReflectionTestUtils.setField(denylist, "expectedPerBucket", 1000L);
+        ReflectionTestUtils.setField(denylist, "falsePositiveRate", 0.01);
+    }
+
+    @Test
+    void revokeReturnsTrueOnlyForTheFirstCall() {
+        Date expiration = new Date(System.currentTimeMillis() + BUCKET_MILLIS);
+
+        assertThat(denylist.revoke("jti-1", expiration)).isTrue();
+        assertThat(denylist.revoke("jti-1", expiration)).isFalse();   // 같은 refreshToken 재사용
+        assertThat(denylist.size()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredOrLegacyTokensAreNotRevoked() {
+        assertThat(denylist.revoke("jti-expired", new Date(System.currentTimeMillis() - 1))).isFalse();
+        assertThat(denylist.revoke(null, new Date(System.currentTimeMillis() + BUCKET_MILLIS))).isFalse();
+        assertThat(denylist.isRevoked(null, null)).isFalse();
+        assertThat(denylist.size()).isZero();
+    }
+
+    @Test
+    void lookupUsesTheBucketOfTheTokenExpiration() {
+        long bucketStart = (System.currentTimeMillis() / BUCKET_MILLIS + 2) * BUCKET_MILLIS;
+        denylist.revoke("jti-1", new Date(bucketStart));
+
+        assertThat(denylist.isRevoked("jti-1", new Date(bucketStart))).isTrue();
+        assertThat(denylist.isRevoked("jti-1", new Date(bucketStart + BUCKET_MILLIS - 1))).isTrue();   // 같은 버킷
+        assertThat(denylist.isRevoked("jti-1", new Date(bucketStart - 1))).isFalse();                  // 이전 버킷
+        assertThat(denylist.isRevoked("jti-1", new Date(bucketStart + BUCKET_MILLIS))).isFalse();      // 다음 버킷
+        assertThat(denylist.isRevoked("jti-2", new Date(bucketStart))).isFalse();
+    }
+
+    @Test
+    void purgeKeepsTheBucketUntilItsLastTokenExpires() {
+        long bucketStart = (System.currentTimeMillis() / BUCKET_MILLIS + 1) * BUCKET_MILLIS;
+        Date expiration = new Date(bucketStart + 10);
+        denylist.revoke("jti-1", expiration);
+
+        denylist.purgeExpired(expiration.getTime());
+        assertThat(denylist.isRevoked("jti-1", expiration)).isTrue();
+
+        denylist.purgeExpired(bucketStart + BUCKET_MILLIS - 1);   // 같은 버킷의 다른 토큰은 아직 만료되지 않았을 수 있다
+        assertThat(denylist.isRevoked("jti-1", expiration)).isTrue();
+
+        denylist.purgeExpired(bucketStart + BUCKET_MILLIS);       // 버킷 구간이 끝나면 삭제
+        assertThat(denylist.isRevoked("jti-1", expiration)).isFalse();
+        assertThat(denylist.size()).isZero();
+    }
+}
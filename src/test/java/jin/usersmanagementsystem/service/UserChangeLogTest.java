@@ -0,0 +1,201 @@
+package jin.usersmanagementsystem.service;
+
+import io.jsonwebtoken.Claims;
+import jin.usersmanagementsystem.UsersmanagementsystemApplication;
+import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.dto.UserPatchRequest;
+import jin.usersmanagementsystem.entity.OurUsers;
+import jin.usersmanagementsystem.repository.UsersRepo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 H2 메모리 DB 를 사용하는 애플리케이션 두 개(인스턴스 A, B)를 띄워,
+ * A 의 사용자 수정 / 삭제 / 로그아웃이 변경 기록을 통해 B 의 캐시와 토큰 상태에 반영되는지 확인
+ */
+class UserChangeLogTest {
+
+    private static final String[] PROPERTIES = {
+            "spring.datasource.url=jdbc:h2:mem:user_change_log_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.jpa.hibernate.ddl-auto=none",
+            "security.password.bcrypt.cost=4",
+            "server.port=0",
+            "audit.enabled=false",
+            "users.coherence.poll-interval-ms=50"
+    };
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void userChangesOnOneNodeAreAppliedOnTheOther() throws InterruptedException {
+        UsersManagementService serviceA = nodeA.getBean(UsersManagementService.class);
+        OurUserDetailsService userDetailsB = nodeB.getBean(OurUserDetailsService.class);
+        String email = "coherence@example.com";
+
+        ReqRes registration = new ReqRes();
+        registration.setEmail(email);
+        registration.setPassword("password");
+        registration.setName("Coherence");
+        registration.setCity("Seoul");
+        registration.setRole("USER");
+        Integer userId = serviceA.register(registration, "127.0.0.1").getOurUsers().getId();
+        assertThat(roleOn(userDetailsB, email)).isEqualTo("USER");   // B 의 캐시에 저장됨
+
+        UserPatchRequest patch = new UserPatchRequest();
+        patch.setRole("ADMIN");
+        patch.setVersion(0);
+        assertThat(serviceA.patchUser(userId, patch).getStatusCode()).isEqualTo(200);
+        await(() -> "ADMIN".equals(roleOn(userDetailsB, email)));
+        int versionA = nodeA.getBean(TokenVersionRegistry.class).minimumVersion(userId);
+        assertThat(versionA).isPositive();
+        assertThat(nodeB.getBean(TokenVersionRegistry.class).minimumVersion(userId)).isEqualTo(versionA);
+
+        assertThat(serviceA.deleteUser(userId).getStatusCode()).isEqualTo(200);
+        await(() -> roleOn(userDetailsB, email) == null);
+        assertThat(nodeB.getBean(TokenVersionRegistry.class).minimumVersion(userId)).isEqualTo(TokenVersionRegistry.DELETED);
+    }
+
+    @Test
+    void tokenVersionsComeFromTheDatabaseOnEveryNode() throws InterruptedException {
+        String email = "versions@example.com";
+        Integer userId = register(nodeA, email);
+
+        UserPatchRequest patch = new UserPatchRequest();
+        patch.setCity("Busan");
+        patch.setVersion(0);
+        ReqRes patched = nodeA.getBean(UsersManagementService.class).patchUser(userId, patch);
+        assertThat(patched.getStatusCode()).isEqualTo(200);
+        assertThat(patched.getOurUsers().getVersion()).isEqualTo(1);   // 다시 조회하지 않고 다음 PATCH 에 사용
+        patch.setCity("Daegu");
+        patch.setVersion(patched.getOurUsers().getVersion());
+        assertThat(nodeB.getBean(UsersManagementService.class).patchUser(userId, patch).getStatusCode()).isEqualTo(200);   // 같은 사용자를 다른 인스턴스에서 수정
+        await(() -> nodeA.getBean(TokenVersionRegistry.class).minimumVersion(userId) == 2);
+        assertThat(nodeB.getBean(TokenVersionRegistry.class).minimumVersion(userId)).isEqualTo(2);
+
+        // 보관 기간이 지나도 아직 있는 사용자의 마지막 기록은 남아, 재시작한 인스턴스도 같은 최소 버전으로 시작한다
+        nodeA.getBean(JdbcTemplate.class).update("update user_change_log set created_at = 0 where user_id = ?", userId);
+        nodeA.getBean(UserChangeLog.class).deleteExpired();
+        try (ConfigurableApplicationContext nodeC = startNode()) {
+            TokenVersionRegistry registryC = nodeC.getBean(TokenVersionRegistry.class);
+            assertThat(registryC.minimumVersion(userId)).isEqualTo(2);
+
+            // 어느 인스턴스에서 발급한 토큰이든 DB 버전을 담으므로 다른 인스턴스에서도 받아들인다
+            String token = nodeC.getBean(JWTUtils.class).generateToken(nodeC.getBean(UsersRepo.class).findById(userId).orElseThrow());
+            int tokenVersion = nodeA.getBean(JWTUtils.class).extractAllClaims(token).get(JWTUtils.CLAIM_TOKEN_VERSION, Integer.class);
+            assertThat(tokenVersion).isEqualTo(2);
+            assertThat(nodeA.getBean(TokenVersionRegistry.class).isAccepted(userId, tokenVersion)).isTrue();
+            assertThat(registryC.isAccepted(userId, tokenVersion - 1)).isFalse();
+        }
+    }
+
+    @Test
+    void usersListETagFollowsTheLastUserChange() throws InterruptedException {
+        UsersManagementService serviceA = nodeA.getBean(UsersManagementService.class);
+        UsersManagementService serviceB = nodeB.getBean(UsersManagementService.class);
+        String email = "etag@example.com";
+        Integer userId = register(nodeA, email);
+        String afterRegister = serviceA.getUsersListETag();   // 이 인스턴스의 변경은 커밋 직후 반영
+        await(() -> afterRegister.equals(serviceB.getUsersListETag()));
+
+        ReqRes logout = new ReqRes();
+        logout.setToken(nodeA.getBean(JWTUtils.class).generateToken(nodeA.getBean(UsersRepo.class).findById(userId).orElseThrow()));
+        serviceA.logout(logout);
+        nodeA.getBean(UserChangeLog.class).poll();
+        assertThat(serviceA.getUsersListETag()).isEqualTo(afterRegister);   // 토큰 폐기는 목록을 바꾸지 않는다
+
+        UserPatchRequest patch = new UserPatchRequest();
+        patch.setName("Renamed");
+        patch.setVersion(0);
+        assertThat(serviceB.patchUser(userId, patch).getStatusCode()).isEqualTo(200);
+        String afterPatch = serviceB.getUsersListETag();
+        assertThat(afterPatch).isNotEqualTo(afterRegister);
+        await(() -> afterPatch.equals(serviceA.getUsersListETag()));
+
+        // 보관 기간이 지나도 마지막 사용자 변경 기록은 남아, 재시작한 인스턴스의 ETag 가 이전 값으로 돌아가지 않는다
+        assertThat(serviceA.deleteUser(userId).getStatusCode()).isEqualTo(200);
+        String afterDelete = serviceA.getUsersListETag();
+        assertThat(afterDelete).isNotEqualTo(afterPatch);
+        nodeA.getBean(JdbcTemplate.class).update("update user_change_log set created_at = 0 where user_id = ? or email = ?", userId, email);
+        nodeA.getBean(UserChangeLog.class).deleteExpired();
+        try (ConfigurableApplicationContext nodeC = startNode()) {
+            assertThat(nodeC.getBean(UsersManagementService.class).getUsersListETag()).isEqualTo(afterDelete);
+        }
+    }
+
+    @Test
+    void revokedTokensAreAppliedOnOtherAndRestartedNodes() throws InterruptedException {
+        OurUsers user = new OurUsers();
+        user.setId(1_000_000);
+        user.setEmail("token@example.com");
+        user.setRole("USER");
+        String token = nodeA.getBean(JWTUtils.class).generateToken(user);
+        Claims claims = nodeB.getBean(JWTUtils.class).extractAllClaims(token);
+
+        ReqRes logout = new ReqRes();
+        logout.setToken(token);
+        nodeA.getBean(UsersManagementService.class).logout(logout);
+        await(() -> nodeB.getBean(TokenDenylist.class).isRevoked(claims.getId(), claims.getExpiration()));
+
+        try (ConfigurableApplicationContext nodeC = startNode()) {   // 시작할 때 변경 기록에서 폐기 목록을 다시 채운다
+            assertThat(nodeC.getBean(TokenDenylist.class).isRevoked(claims.getId(), claims.getExpiration())).isTrue();
+        }
+    }
+
+    private static Integer register(ConfigurableApplicationContext node, String email) {
+        ReqRes registration = new ReqRes();
+        registration.setEmail(email);
+        registration.setPassword("password");
+        registration.setName("Versions");
+        registration.setCity("Seoul");
+        registration.setRole("USER");
+        return node.getBean(UsersManagementService.class).register(registration, "127.0.0.1").getOurUsers().getId();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(UsersmanagementsystemApplication.class).properties(PROPERTIES).run();
+    }
+
+    // 사용자 역할 (인증에 쓰이는 캐시 / DB 조회 결과), 없으면 null
+    private static String roleOn(OurUserDetailsService userDetailsService, String email) {
+        try {
+            return userDetailsService.loadUserByUsername(email).getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority).findFirst().orElse(null);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    // 다른 인스턴스가 변경 기록을 읽을 때까지 대기 (최대 5초)
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
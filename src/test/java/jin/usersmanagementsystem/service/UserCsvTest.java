@@ -0,0 +1,65 @@
+package jin.usersmanagementsystem.service;
+
+import jin.usersmanagementsystem.dto.UserTransferRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CSV 로 쓴 값을 그대로 다시 읽을 수 있는지 (쉼표, 따옴표, 줄바꿈이 있는 값 포함)
+ */
+class UserCsvTest {
+
+    @Test
+    void readsBackEscapedValues() throws IOException {
+        StringWriter out = new StringWriter();
+        out.write("id,email,name,city,role,version,password\r\n");
+        writeRow(out, "1", "a@example.com", "Kim, \"Jin\"", "Seoul\nGangnam", "ADMIN", "3", "{bcrypt}$2a$10$hash");
+        writeRow(out, "2", "b@example.com", null, "Busan", "USER", "0", "secret");
+        out.write("\n");   // 빈 줄은 무시
+
+        List<UserTransferRow> rows = readAll(out.toString());
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).isEqualTo(new UserTransferRow(1, "a@example.com", "Kim, \"Jin\"", "Seoul\nGangnam", "ADMIN", 3, "{bcrypt}$2a$10$hash"));
+        assertThat(rows.get(1)).isEqualTo(new UserTransferRow(2, "b@example.com", null, "Busan", "USER", 0, "secret"));
+    }
+
+    @Test
+    void mapsColumnsByHeaderName() {
+        List<UserTransferRow> rows = readAll("\uFEFFPassword,Email,extra\nsecret,c@example.com,ignored\n");
+
+        assertThat(rows).containsExactly(new UserTransferRow(null, "c@example.com", null, null, null, null, "secret"));
+    }
+
+    @Test
+    void rejectsMissingEmailColumnAndUnterminatedQuote() {
+        assertThatThrownBy(() -> readAll("name,password\nKim,secret\n")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> readAll("email,name\nd@example.com,\"Kim\n")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void writeRow(StringWriter out, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            UserCsv.writeField(out, values[i]);
+        }
+        out.write('\n');
+    }
+
+    private static List<UserTransferRow> readAll(String csv) {
+        List<UserTransferRow> rows = new ArrayList<>();
+        Iterator<UserTransferRow> reader = UserCsv.reader(new StringReader(csv));
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,62 @@
+package jin.usersmanagementsystem.service;
+
+import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.dto.UserSearchCriteria;
+import jin.usersmanagementsystem.dto.UserView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 검색 커서는 만든 검색과 같은 정렬 / 조건에서만 받는다 (다른 검색에 다시 쓰면 400)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user_search_cursor_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "audit.enabled=false"
+})
+class UserSearchCursorTest {
+
+    @Autowired
+    private UsersManagementService usersManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertUsers() {
+        jdbcTemplate.update("delete from ourusers");
+        for (int i = 0; i < 5; i++) {
+            String email = "kim" + i + "@example.com";
+            jdbcTemplate.update("insert into ourusers (email, email_normalized, name, password, city, role) values (?, ?, ?, 'hash', 'Seoul', 'USER')",
+                    email, email, "Kim " + i);
+        }
+    }
+
+    @Test
+    void cursorPagesThroughTheSameSearch() {
+        UserSearchCriteria criteria = new UserSearchCriteria(null, null, "Kim", null);
+        ReqRes first = usersManagementService.searchUsers(criteria, null, 3);
+        ReqRes second = usersManagementService.searchUsers(criteria, first.getNextCursor(), 3);
+
+        assertThat(second.getStatusCode()).isEqualTo(200);
+        assertThat(second.getOurUsersList()).extracting(UserView::getName).containsExactly("Kim 3", "Kim 4");
+    }
+
+    @Test
+    void cursorFromAnotherSortOrConditionIsRejected() {
+        String nameCursor = usersManagementService.searchUsers(new UserSearchCriteria(null, null, "Kim", null), null, 3).getNextCursor();
+
+        ReqRes otherSort = usersManagementService.searchUsers(new UserSearchCriteria(null, null, null, "kim"), nameCursor, 3);
+        ReqRes otherCondition = usersManagementService.searchUsers(new UserSearchCriteria(null, "Seoul", "Kim", null), nameCursor, 3);
+
+        assertThat(otherSort.getStatusCode()).isEqualTo(400);
+        assertThat(otherCondition.getStatusCode()).isEqualTo(400);
+    }
+}
@@ -0,0 +1,59 @@
+package jin.usersmanagementsystem.service;
+
+import jin.usersmanagementsystem.dto.ReqRes;
+import jin.usersmanagementsystem.entity.OurUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 가져오기가 이미 있는 사용자를 덮어쓰면, 가입된 이메일 필터에 없던 사용자라도 수정으로 기록한다
+ * (다른 인스턴스에서 가입해 아직 이 인스턴스의 필터에 없는 사용자)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:users_import_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "security.password.bcrypt.cost=4",
+        "audit.enabled=false"
+})
+class UsersImportTest {
+
+    @Autowired
+    private UsersTransferService usersTransferService;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void overwritingAUserUnknownToTheEmailFilterIsRecordedAsAnUpdate() {
+        String email = "Imported@Example.com";
+        jdbcTemplate.update("insert into ourusers (email, email_normalized, name, password, city, role) values (?, ?, 'Old', 'hash', 'Seoul', 'USER')",
+                email, OurUsers.normalizeEmail(email));   // 이 인스턴스를 거치지 않은 가입
+        Integer userId = jdbcTemplate.queryForObject("select id from ourusers where email_normalized = ?", Integer.class, OurUsers.normalizeEmail(email));
+        assertThat(registeredEmailFilter.mightBeRegistered(OurUsers.normalizeEmail(email))).isFalse();
+
+        String csv = "email,name,city,role,password\n" + email + ",New,Busan,ADMIN,secret\n";
+        ReqRes response = usersTransferService.importUsers("csv", new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), false, "import-test", null);
+
+        assertThat(response.getStatusCode()).as(response.getError()).isEqualTo(200);
+        assertThat(response.getMessage()).startsWith("0 users created, 1 updated");
+        assertThat(jdbcTemplate.queryForObject("select role from ourusers where id = ?", String.class, userId)).isEqualTo("ADMIN");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from user_change_log where change_type = ? and user_id = ?", Integer.class,
+                UserChangeLog.USER_UPDATED, userId)).isEqualTo(1);
+        assertThat(tokenVersionRegistry.minimumVersion(userId)).isEqualTo(1);   // 이전 역할이 담긴 토큰 (버전 0) 은 거부
+    }
+}